@@ -3,9 +3,11 @@ package org.yawlfoundation.yawl.ui;
 import com.vaadin.flow.component.dependency.StyleSheet;
 import com.vaadin.flow.component.page.AppShellConfigurator;
 import com.vaadin.flow.component.page.Inline;
+import com.vaadin.flow.component.page.Push;
 import com.vaadin.flow.server.AppShellSettings;
 import com.vaadin.flow.theme.Theme;
 
+@Push
 @Theme("common-theme")
 @StyleSheet("styles.css")
 public class AppShell implements AppShellConfigurator {
@@ -1,11 +1,13 @@
 package org.yawlfoundation.yawl.ui.component;
 
 import com.vaadin.flow.component.html.Anchor;
+import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.server.streams.DownloadHandler;
 import io.netty.util.internal.StringUtil;
 import org.yawlfoundation.yawl.ui.announce.Announcement;
 import org.yawlfoundation.yawl.ui.menu.ActionIcon;
 
+import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.function.Supplier;
@@ -80,6 +82,48 @@ public class DownloadIconWrapper extends Anchor {
     }
 
 
+    // streamed content - written directly to the download, without being held in memory.
+    // The suppliers read view state, so are called holding the session lock; the
+    // content supplier returns a writer of a snapshot of the content, or null if none
+    public DownloadIconWrapper(ActionIcon icon,
+                               Supplier<String> fileNameSupplier,
+                               String contentType,
+                               Supplier<ContentWriter> contentSupplier,
+                               Runnable postDownloadAction) {
+
+        DownloadHandler handler = event -> {
+            String fileName;
+            ContentWriter contentWriter;
+            VaadinSession session = event.getSession();
+            session.lock();
+            try {
+                fileName = fileNameSupplier.get();
+                contentWriter = contentSupplier.get();
+                if (contentWriter == null) {
+                    Announcement.error("Error downloading %s: no content",
+                            fileName);
+                    return;
+                }
+            }
+            finally {
+                session.unlock();
+            }
+            event.setFileName(fileName);
+            event.setContentType(contentType);
+
+            try (OutputStream os = event.getOutputStream()) {
+                contentWriter.write(os);
+            }
+            catch (Exception e) {
+                Announcement.error("Error downloading %s: %s",
+                        fileName, e.getMessage());
+            }
+        };
+
+        configure(icon, handler, postDownloadAction);
+    }
+
+
     private void configure(ActionIcon icon, DownloadHandler handler, Runnable postDownloadAction) {
 
         // Initialize the Anchor with the handler
@@ -104,6 +148,12 @@ public class DownloadIconWrapper extends Anchor {
 
 
     }
+
+
+    @FunctionalInterface
+    public interface ContentWriter {
+        void write(OutputStream os) throws IOException;
+    }
     
 }
 
@@ -81,7 +81,7 @@ public class ParticipantDetailsDialog extends AbstractDialog {
     // when editing
     public ParticipantDetailsDialog(List<Participant> pList, Participant p) {
         _allParticipants = pList;
-        _participant = p;
+        _participant = copyOf(p);                          // p is shared by all users
         _mode = deriveMode(pList, p);
         _roleList = createAttributeList(Attribute.Role);
         _capabilityList = createAttributeList(Attribute.Capability);
@@ -100,6 +100,16 @@ public class ParticipantDetailsDialog extends AbstractDialog {
     public Button getOKButton() { return _okButton; }
 
 
+    // Participant.clone() gives the copy (and its privileges) a "_CLONE_" id, so the
+    // real id is put back before the copy is used in any service call
+    private Participant copyOf(Participant p) {
+        if (p == null) return null;
+        Participant copy = p.clone();
+        copy.setID(p.getID());                              // also sets privileges id
+        return copy;
+    }
+
+
     public boolean validate() {
 
         // no short circuits
@@ -367,12 +377,12 @@ public class ParticipantDetailsDialog extends AbstractDialog {
         if (id.equalsIgnoreCase("admin")) {
             return false;                                        // 'admin' is reserved
         }
-        for (Participant p : _allParticipants) {
-            if (id.equals(p.getUserID())) {
-                return false;
-            }
+        try {
+            return _resClient.getParticipantDirectory().getByUserID(id) == null;
+        }
+        catch (IOException | ResourceGatewayException e) {
+            return _allParticipants.stream().noneMatch(p -> id.equals(p.getUserID()));
         }
-        return true;
     }
 
 
@@ -251,12 +251,18 @@ public class SecondaryResourcesDialog extends AbstractDialog {
     }
 
 
+    // participants are equal by id, so the directory's instance selects the list's
     private void initParticipant(String id) {
-        for (Participant p : _participants) {
-            if (p.getID().equals(id)) {
+        try {
+            Participant p = Clients.getResourceClient().getParticipantDirectory().getByID(id);
+            if (p != null) {
                 _participantList.select(p);
             }
         }
+        catch (ResourceGatewayException | IOException e) {
+            Announcement.warn("Failed to retrieve participant from engine: " +
+                    e.getMessage());
+        }
     }
 
 
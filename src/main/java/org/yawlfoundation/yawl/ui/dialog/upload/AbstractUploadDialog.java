@@ -8,6 +8,7 @@ import com.vaadin.flow.component.textfield.TextArea;
 import com.vaadin.flow.component.textfield.TextAreaVariant;
 import com.vaadin.flow.component.upload.SucceededEvent;
 import com.vaadin.flow.component.upload.Upload;
+import com.vaadin.flow.component.upload.receivers.MultiFileBuffer;
 import com.vaadin.flow.component.upload.receivers.MultiFileMemoryBuffer;
 import org.apache.commons.io.IOUtils;
 import org.yawlfoundation.yawl.ui.dialog.AbstractDialog;
@@ -48,6 +49,15 @@ public abstract class AbstractUploadDialog extends AbstractDialog {
         upload.setMaxFiles(maxFiles);
     }
 
+    // has uploads written to temp files instead of being held in memory - for
+    // potentially large files. The caller should delete each file once it's used
+    protected MultiFileBuffer useFileBuffer() {
+        MultiFileBuffer fileBuffer = new MultiFileBuffer();
+        upload.setReceiver(fileBuffer);
+        return fileBuffer;
+    }
+
+
     protected String readFile(InputStream is) throws IOException {
         return IOUtils.toString(is, StandardCharsets.UTF_8);
     }
@@ -3,19 +3,24 @@ package org.yawlfoundation.yawl.ui.dialog.upload;
 import com.vaadin.flow.component.ClickEvent;
 import com.vaadin.flow.component.ComponentEventListener;
 import com.vaadin.flow.component.button.Button;
-import org.jdom2.Document;
-import org.jdom2.Element;
-import org.jdom2.Namespace;
+import com.vaadin.flow.component.upload.receivers.FileData;
+import com.vaadin.flow.component.upload.receivers.MultiFileBuffer;
 import org.yawlfoundation.yawl.engine.YSpecificationID;
 import org.yawlfoundation.yawl.engine.interfce.SpecificationData;
 import org.yawlfoundation.yawl.schema.YSchemaVersion;
 import org.yawlfoundation.yawl.ui.service.Clients;
 import org.yawlfoundation.yawl.ui.service.UploadResult;
-import org.yawlfoundation.yawl.util.JDOMUtil;
 import org.yawlfoundation.yawl.util.StringUtil;
 
-import java.io.IOException;
-import java.io.InputStream;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 
 /**
@@ -24,50 +29,122 @@ import java.util.List;
  */
 public class UploadSpecificationDialog extends AbstractUploadDialog {
 
+    private static final byte[] BOF_MARKER = "<?xml".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] EOF_MARKER =
+            "</specificationSet>".getBytes(StandardCharsets.UTF_8);
+
     private final List<SpecificationData> _loadedSpecs;
+    private final MultiFileBuffer _fileBuffer;
 
 
     public UploadSpecificationDialog(List<SpecificationData> loadedSpecs,
                                      ComponentEventListener<ClickEvent<Button>> listener) {
         super("Upload Specifications", ".yawl", ".xml");
         _loadedSpecs = loadedSpecs;
+        _fileBuffer = useFileBuffer();           // specifications can be many megabytes
         addCloseButtonListener(listener);
         addSucceedListener(event -> {
             String fileName = event.getFileName();
-            uploadSpecification(fileName, buffer.getInputStream(fileName));
+            FileData fileData = _fileBuffer.getFileData(fileName);
+            if (fileData != null) {
+                uploadSpecification(fileName, fileData.getFile());
+            }
         });
     }
 
 
-    private void uploadSpecification(String fileName, InputStream stream) {
+    // the uploaded file is passed on as a file, rather than read into memory here
+    private void uploadSpecification(String fileName, File file) {
+         File trimmedFile = null;
          try {
-             String fileContent = validateUpload(readFile(stream));
-             UploadResult result = Clients.getEngineClient().uploadSpecification(fileContent);
+             trimmedFile = validateUpload(file);
+             UploadResult result = Clients.getEngineClient().uploadSpecification(trimmedFile);
              processResult(result, fileName);
          }
          catch (IOException ioe) {
              appendMessage(formatMessage("ERROR", stripPath(fileName), unwrap(ioe.getMessage())));
          }
+         finally {
+             deleteFile(file);
+             if (trimmedFile != null && ! trimmedFile.equals(file)) {
+                 deleteFile(trimmedFile);
+             }
+         }
      }
 
 
-    private String validateUpload(String content) throws IOException {
-        int BOF = content.indexOf("<?xml");
-        int EOF = content.indexOf("</specificationSet>");
-        if (BOF != -1 && EOF != -1) {
-            String trimmedContent = content.substring(BOF, EOF + 19);
-            hasUniqueDescriptors(trimmedContent);                      // throws IOException
-            return trimmedContent;
+    // removes anything before the xml declaration (which is optional) or after the
+    // closing root tag (which is not), copying to a new file only if there is
+    // something to remove
+    private File validateUpload(File file) throws IOException {
+        long length = file.length();
+        long[] markers = findMarkers(file);
+        if (markers[1] == -1) {
+            throw new IOException(
+                    "Malformed specification: closing 'specificationSet' tag not found.");
+        }
+        long BOF = Math.max(markers[0], 0);
+        long EOF = markers[1] + EOF_MARKER.length;
+        File trimmedFile = BOF > 0 || EOF < length ?
+                File.createTempFile("yawlui-spec", ".yawl") : file;
+        try {
+            if (trimmedFile != file) {
+                try (FileChannel in = FileChannel.open(file.toPath());
+                     FileChannel out = FileChannel.open(trimmedFile.toPath(),
+                             StandardOpenOption.WRITE)) {
+                    long copied = 0;
+                    while (copied < EOF - BOF) {
+                        copied += in.transferTo(BOF + copied, EOF - BOF - copied, out);
+                    }
+                }
+            }
+            hasUniqueDescriptors(trimmedFile);                     // throws IOException
+            return trimmedFile;
+        }
+        catch (IOException ioe) {
+            if (trimmedFile != file) deleteFile(trimmedFile);      // caller won't see it
+            throw ioe;
         }
-        return content;
     }
 
 
-    private void hasUniqueDescriptors(String specxml) throws IOException {
-        if (StringUtil.isNullOrEmpty(specxml)) {
+    // streams the whole file once, to find the first start and end markers - each is
+    // -1 if not found
+    private long[] findMarkers(File file) throws IOException {
+        MarkerMatcher bofMatcher = new MarkerMatcher(BOF_MARKER);
+        MarkerMatcher eofMatcher = new MarkerMatcher(EOF_MARKER);
+        byte[] block = new byte[8192];
+        long pos = 0;
+        try (InputStream is = new FileInputStream(file)) {
+            int read;
+            while (eofMatcher.found == -1 && (read = is.read(block)) != -1) {
+                for (int i = 0; i < read && eofMatcher.found == -1; i++, pos++) {
+                    if (bofMatcher.found == -1) {
+                        bofMatcher.next(block[i], pos);
+                    }
+                    eofMatcher.next(block[i], pos);
+                }
+            }
+        }
+        return new long[] { bofMatcher.found, eofMatcher.found };
+    }
+
+
+    private void deleteFile(File file) {
+        try {
+            Files.deleteIfExists(file.toPath());
+        }
+        catch (IOException e) {
+            // left for the OS to clear from its temp dir
+        }
+    }
+
+
+    private void hasUniqueDescriptors(File specFile) throws IOException {
+        if (specFile.length() == 0) {
             throw new IOException("Invalid specification file: null or empty contents.");
         }
-        YSpecificationID specID = getDescriptors(specxml);
+        YSpecificationID specID = getDescriptors(specFile);
         if (! specID.isValid()) {
             throw new IOException("Invalid specification: missing identifier or incorrect version.");
         }
@@ -101,29 +178,87 @@ public class UploadSpecificationDialog extends AbstractUploadDialog {
     }
 
 
-    private YSpecificationID getDescriptors(String specxml) throws IOException {
-        Document doc = JDOMUtil.stringToDocument(specxml);
-        if (doc != null) {
-            Element root = doc.getRootElement();
-            Namespace ns = root.getNamespace();
-            YSchemaVersion schemaVersion = YSchemaVersion.fromString(
-                    root.getAttributeValue("version"));
-            Element specification = root.getChild("specification", ns);
-
-            if (specification != null) {
-                String uri = specification.getAttributeValue("uri");
+    // reads only as far as the specification's metadata, rather than the whole file
+    private YSpecificationID getDescriptors(File specFile) throws IOException {
+        try (InputStream is = new BufferedInputStream(new FileInputStream(specFile))) {
+            XMLStreamReader reader = createInputFactory().createXMLStreamReader(is);
+            try {
+                reader.nextTag();                                // specificationSet
+                String ns = reader.getNamespaceURI();
+                YSchemaVersion schemaVersion = YSchemaVersion.fromString(
+                        reader.getAttributeValue(null, "version"));
+                if (! nextChild(reader, ns, "specification", 1)) {
+                    throw new IOException(
+                            "Malformed specification: 'specification' node not found.");
+                }
+                String uri = reader.getAttributeValue(null, "uri");
                 String version = "0.1";
                 String uid = null;
-                if (! (schemaVersion == null || schemaVersion.isBetaVersion())) {
-                    Element metadata = specification.getChild("metaData", ns);
-                    version = metadata.getChildText("version", ns);
-                    uid = metadata.getChildText("identifier", ns);
+                if (! (schemaVersion == null || schemaVersion.isBetaVersion()) &&
+                        nextChild(reader, ns, "metaData", 1)) {
+                    while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                        String name = reader.getLocalName();
+                        if (name.equals("version") && ns.equals(reader.getNamespaceURI())) {
+                            version = reader.getElementText();
+                        }
+                        else if (name.equals("identifier") &&
+                                ns.equals(reader.getNamespaceURI())) {
+                            uid = reader.getElementText();
+                        }
+                        else {
+                            skipElement(reader);
+                        }
+                    }
                 }
                 return new YSpecificationID(uid, version, uri);
             }
-            else throw new IOException("Malformed specification: 'specification' node not found.");
+            finally {
+                reader.close();
+            }
+        }
+        catch (XMLStreamException | RuntimeException e) {
+            throw new IOException("Malformed specification: unable to parse.");
+        }
+    }
+
+
+    // moves to the next child element with the given name, skipping any others, at
+    // the given depth below the current element
+    private boolean nextChild(XMLStreamReader reader, String ns, String name, int depth)
+            throws XMLStreamException {
+        int level = 0;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (++level == depth && name.equals(reader.getLocalName()) &&
+                        ns.equals(reader.getNamespaceURI())) {
+                    return true;
+                }
+            }
+            else if (event == XMLStreamConstants.END_ELEMENT && --level < 0) {
+                return false;                              // end of the current element
+            }
         }
-        else  throw new IOException("Malformed specification: unable to parse.");
+        return false;
+    }
+
+
+    private void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int level = 1;
+        while (level > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) level++;
+            else if (event == XMLStreamConstants.END_ELEMENT) level--;
+        }
+    }
+
+
+    // a factory per parse, as factories aren't thread-safe
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
     }
 
 
@@ -173,5 +308,28 @@ public class UploadSpecificationDialog extends AbstractUploadDialog {
         }
         return s;
     }
+
+
+    // matches a marker one byte at a time. Neither marker's first byte recurs within
+    // it, so after a mismatch the match need only restart at the current byte
+    private static class MarkerMatcher {
+
+        private final byte[] _marker;
+        private int _matched;
+        long found = -1;                            // the marker's position in the file
+
+        MarkerMatcher(byte[] marker) { _marker = marker; }
+
+        void next(byte b, long pos) {
+            if (b == _marker[_matched]) {
+                if (++_matched == _marker.length) {
+                    found = pos - _marker.length + 1;
+                }
+            }
+            else {
+                _matched = b == _marker[0] ? 1 : 0;
+            }
+        }
+    }
     
 }
@@ -27,8 +27,10 @@ package org.yawlfoundation.yawl.ui.dynform;
 
 
 import com.vaadin.flow.component.Component;
+import org.jdom2.Document;
 import org.jdom2.Element;
 import org.yawlfoundation.yawl.elements.data.YParameter;
+import org.yawlfoundation.yawl.engine.YSpecificationID;
 import org.yawlfoundation.yawl.engine.interfce.TaskInformation;
 import org.yawlfoundation.yawl.engine.interfce.WorkItemRecord;
 import org.yawlfoundation.yawl.resourcing.jsf.dynform.FormParameter;
@@ -69,6 +71,9 @@ public class DynFormFactory {
     // the top-level container
     private DynFormLayout _container;
 
+    // generates the unique ids used on this form
+    private final IdGenerator _idGenerator = new IdGenerator();
+
 
 
     public DynFormFactory() { }
@@ -201,7 +206,7 @@ public class DynFormFactory {
                                     Map<String, FormParameter> paramMap,
                                     Participant participant,
                                     TNode typeTree) throws DynFormException {
-        _fieldAssembler = new DynFormFieldAssembler(schema, data, paramMap);
+        _fieldAssembler = new DynFormFieldAssembler(getSchemaDocument(schema), data, paramMap);
         List<DynFormField> fieldList = _fieldAssembler.getFieldList();
         assignImpliedTypes(fieldList, new ArrayList<>(), typeTree);
         DynAttributeFactory.adjustFields(fieldList, _wir, participant);   // 1st pass
@@ -215,6 +220,14 @@ public class DynFormFactory {
     }
 
 
+    // a case start form has no work item, so is keyed by its schema alone
+    private Document getSchemaDocument(String schema) throws DynFormException {
+        YSpecificationID specID = _wir != null ? new YSpecificationID(_wir) : null;
+        String taskID = _wir != null ? _wir.getTaskID() : null;
+        return DynFormSchemaCache.get(specID, taskID, schema);
+    }
+
+
     private DynFormComponentList buildInnerForm(DynFormComponentBuilder builder,
                                                 List<DynFormField> fieldList) {
         DynFormComponentList componentList = new DynFormComponentList();
@@ -297,7 +310,7 @@ public class DynFormFactory {
     }
 
     
-    private String createUniqueID(String id) { return IdGenerator.uniquify(id); }
+    private String createUniqueID(String id) { return _idGenerator.uniquify(id); }
 
 
      private void removeSubPanelController(SubPanel panel) {
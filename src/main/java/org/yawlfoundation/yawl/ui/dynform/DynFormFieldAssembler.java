@@ -45,13 +45,19 @@ public class DynFormFieldAssembler {
 
     public DynFormFieldAssembler(String schemaStr, String dataStr,
                                  Map<String, FormParameter> params) throws DynFormException {
+        this(JDOMUtil.stringToDocument(normaliseNamespaces(schemaStr)), dataStr, params);
+    }
+
+
+    // the schema document must have normalised namespaces, and is modified here
+    public DynFormFieldAssembler(Document schema, String dataStr,
+                                 Map<String, FormParameter> params) throws DynFormException {
         _params = params;
-        buildMap(normaliseNamespaces(schemaStr), dataStr);
+        buildMap(schema, dataStr);
     }
 
-    private void buildMap(String schemaStr, String dataStr) throws DynFormException {
+    private void buildMap(Document doc, String dataStr) throws DynFormException {
         Element data = JDOMUtil.stringToElement(dataStr);
-        Document doc = JDOMUtil.stringToDocument(schemaStr);
         Element root = doc.getRootElement();                        // schema
         Namespace ns = root.getNamespace();
         Element element = root.getChild("element", ns) ;
@@ -444,7 +450,8 @@ public class DynFormFieldAssembler {
     }
 
 
-    private String normaliseNamespaces(String schemaString) {
+    // also used by DynFormSchemaCache, which caches schemas normalised here
+    static String normaliseNamespaces(String schemaString) {
         schemaString = schemaString.replaceAll("xs:", NS_PREFIX + ":");
         return schemaString.replaceAll("yawl:", NS_PREFIX + ":");
     }
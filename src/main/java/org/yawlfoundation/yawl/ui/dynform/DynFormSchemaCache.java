@@ -0,0 +1,74 @@
+package org.yawlfoundation.yawl.ui.dynform;
+
+import org.jdom2.Document;
+import org.yawlfoundation.yawl.engine.YSpecificationID;
+import org.yawlfoundation.yawl.ui.util.ApplicationProperties;
+import org.yawlfoundation.yawl.util.JDOMUtil;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches the parsed, namespace-normalised form schemas of recently opened forms, keyed
+ * by specification, task and schema text. Form assembly removes processed annotations
+ * from the schema, so each form is given its own copy of the cached document.
+ *
+ * @author Michael Adams
+ * @date 18/10/2026
+ */
+class DynFormSchemaCache {
+
+    private static final int MAX_SIZE = Math.max(1,
+            ApplicationProperties.getDynFormSchemaCacheSize());
+
+    // access-ordered, so the eldest entry is the least recently used
+    private static final Map<Key, Document> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Document> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+
+
+    private DynFormSchemaCache() { }
+
+
+    /**
+     * @param specID the specification of the form's task, or null for a case start form
+     * @param taskID the form's task, or null for a case start form
+     * @param schema the form's XSD schema
+     * @return a copy of the parsed schema, for the caller's sole use
+     */
+    static Document get(YSpecificationID specID, String taskID, String schema)
+            throws DynFormException {
+        Key key = new Key(specID, taskID, schema);
+        Document doc;
+        synchronized (CACHE) {
+            doc = CACHE.get(key);
+        }
+        if (doc == null) {
+            doc = parse(schema);
+            synchronized (CACHE) {
+                CACHE.put(key, doc);
+            }
+        }
+        synchronized (doc) {                // the cached original is only read here
+            return doc.clone();
+        }
+    }
+
+
+    private static Document parse(String schema) throws DynFormException {
+        Document doc = JDOMUtil.stringToDocument(
+                DynFormFieldAssembler.normaliseNamespaces(schema));
+        if (doc == null) {
+            throw new DynFormException("Malformed data schema");
+        }
+        return doc;
+    }
+
+
+    // keyed on the whole schema, as a task's schema can change between versions
+    private record Key(YSpecificationID specID, String taskID, String schema) { }
+
+}
@@ -42,9 +42,10 @@ import java.io.UnsupportedEncodingException;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -60,14 +61,31 @@ public class DynFormValidator {
     public final static String NS_URI = XMLConstants.W3C_XML_SCHEMA_NS_URI;
     public final static String NS_PREFIX = "xsd";
 
-    private final String _ns = XMLConstants.W3C_XML_SCHEMA_NS_URI;
-    private final SchemaFactory _factory = SchemaFactory.newInstance(_ns);
+    // the element name used in per-field schemas, so that fields with the same
+    // type and facets share a compiled schema
+    private static final String VALUE_ELEMENT = "value";
+
+    private static final int MAX_CACHED_SCHEMAS = 500;
+    private static final int MAX_IDLE_VALIDATORS = 4;                   // per schema
+
+    // compiled schemas by schema text - each is compiled, outside the lock, by the
+    // first thread to need it, and completes with null if the schema is invalid
+    private static final Map<String, CompletableFuture<CompiledSchema>> SCHEMAS =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        Map.Entry<String, CompletableFuture<CompiledSchema>> e) {
+                    return size() > MAX_CACHED_SCHEMAS;
+                }
+            };
+
     private final ErrorHandler _errorHandler = new ErrorHandler();
 
+    // DatatypeFactory instances aren't thread-safe, so each validator has its own
+    private DatatypeFactory _datatypeFactory;
 
-    public DynFormValidator() {
-        _factory.setErrorHandler(_errorHandler);
-    }
+
+    public DynFormValidator() { }
 
     
     public boolean validate(DynFormLayout panel,
@@ -187,7 +205,7 @@ public class DynFormValidator {
         field.setInvalid(false);
         String value = field.getValue();
         try {
-            DatatypeFactory.newInstance().newDuration(value);    // try duration 1st
+            getDatatypeFactory().newDuration(value);              // try duration 1st
             return true;
         }
         catch (Exception e) {
@@ -303,8 +321,7 @@ public class DynFormValidator {
 
      private boolean validateDuration(String value, String fieldName, boolean untreated) {
          try {
-             DatatypeFactory factory = DatatypeFactory.newInstance();
-             factory.newDuration(value);
+             getDatatypeFactory().newDuration(value);
              return true;
          }
          catch (Exception e) {
@@ -414,12 +431,17 @@ public class DynFormValidator {
 
     private String validateAgainstSchema(DynFormField input, String value) {
         try {
-            _errorHandler.reset();
-            Schema schema = _factory.newSchema(getInputSchema(input));
-            if (_errorHandler.isValid()) {
-                Validator validator = schema.newValidator();
-                validator.setErrorHandler(_errorHandler);
-                validator.validate(getInputValueAsXML(input, value));
+            CompiledSchema schema = getSchema(buildInputSchema(input));
+            if (schema != null) {
+                Validator validator = schema.borrowValidator();
+                try {
+                    _errorHandler.reset();
+                    validator.setErrorHandler(_errorHandler);
+                    validator.validate(getInputValueAsXML(input, value));
+                }
+                finally {
+                    schema.returnValidator(validator);
+                }
                 if (! _errorHandler.isValid()) {
                     return formatSchemaErrorMessage(input);
                 }
@@ -433,15 +455,57 @@ public class DynFormValidator {
     }
 
 
-    private SAXSource getInputSchema(DynFormField input) {
-        return createSAXSource(buildInputSchema(input));
+    // returns null if the schema doesn't compile, as no value can be checked against it.
+    // Only those threads that need the same schema wait while it is compiled
+    private CompiledSchema getSchema(String schemaString) throws SAXException {
+        CompletableFuture<CompiledSchema> future;
+        boolean isCompiler = false;
+        synchronized (SCHEMAS) {
+            future = SCHEMAS.get(schemaString);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                SCHEMAS.put(schemaString, future);
+                isCompiler = true;
+            }
+        }
+        if (isCompiler) {
+            try {
+                future.complete(compileSchema(schemaString));
+            }
+            catch (SAXException | RuntimeException e) {
+                synchronized (SCHEMAS) {
+                    SCHEMAS.remove(schemaString, future);   // let a later call try again
+                }
+                future.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return future.join();
+        }
+        catch (CompletionException e) {
+            if (e.getCause() instanceof SAXException) {
+                throw (SAXException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+
+    // a new factory for each compile, as factories aren't thread-safe
+    private CompiledSchema compileSchema(String schemaString) throws SAXException {
+        ErrorHandler errorHandler = new ErrorHandler();
+        SchemaFactory factory = SchemaFactory.newInstance(NS_URI);
+        factory.setErrorHandler(errorHandler);
+        Schema schema = factory.newSchema(createSAXSource(schemaString));
+        return errorHandler.isValid() ? new CompiledSchema(schema) : null;
     }
 
 
     private SAXSource getInputValueAsXML(DynFormField input, String value) {
         if (input.getDataTypeUnprefixed().equals("string"))
             value = JDOMUtil.encodeEscapes(value);               // encode string values
-        return createSAXSource(StringUtil.wrap(value, input.getName()));
+        return createSAXSource(StringUtil.wrap(value, VALUE_ELEMENT));
     }
 
 
@@ -463,7 +527,7 @@ public class DynFormValidator {
         schema.append("<")
               .append(NS_PREFIX)
               .append(":element name=\"")
-              .append(input.getName())
+              .append(VALUE_ELEMENT)
               .append("\"");
 
         if (input.hasUnion()) {
@@ -491,8 +555,41 @@ public class DynFormValidator {
     }
 
 
+    private DatatypeFactory getDatatypeFactory() {
+        if (_datatypeFactory == null) {
+            _datatypeFactory = DatatypeFactory.newDefaultInstance();
+        }
+        return _datatypeFactory;
+    }
+
+
     private String getSchemaHeader() {
         return String.format("<%s:schema xmlns:%s=\"%s\">", NS_PREFIX, NS_PREFIX, NS_URI); 
     }
 
+
+    // a Schema can be shared by threads, but each of its Validators can't, so a
+    // validator is borrowed for each use from a small pool of idle ones. The pool
+    // goes when its schema leaves the cache
+    private static class CompiledSchema {
+
+        private final Schema _schema;
+        private final Queue<Validator> _idle = new ConcurrentLinkedQueue<>();
+
+        CompiledSchema(Schema schema) { _schema = schema; }
+
+        Validator borrowValidator() {
+            Validator validator = _idle.poll();
+            return validator != null ? validator : _schema.newValidator();
+        }
+
+        void returnValidator(Validator validator) {
+            validator.reset();
+            validator.setErrorHandler(null);
+            if (_idle.size() < MAX_IDLE_VALIDATORS) {
+                _idle.offer(validator);
+            }
+        }
+    }
+
 }
@@ -18,24 +18,29 @@
 
 package org.yawlfoundation.yawl.ui.dynform;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
+ * Generates ids that are unique within a single form. Each form's factory has its own
+ * generator, so nothing is kept once the form is closed.
+ *
  * @author Michael Adams
  * @date 16/09/2014
  */
 public class IdGenerator {
 
-    private static final Set<String> _usedIDs = new HashSet<String>();
+    // id prefix -> the last suffix given to it
+    private final Map<String, AtomicInteger> _counters = new ConcurrentHashMap<>();
 
 
-    protected static void clear() { _usedIDs.clear(); }
+    protected void clear() { _counters.clear(); }
 
 
-    protected static String uniquify(String id) {
+    protected String uniquify(String id) {
         char[] idChars = id.toCharArray();
-        StringBuilder cleanChars = new StringBuilder(idChars.length);
+        StringBuilder cleanChars = new StringBuilder(idChars.length + 4);
 
         // only letter, digit, underscore or dash allowed for an id
         for (char c : idChars) {
@@ -43,15 +48,17 @@ public class IdGenerator {
                 cleanChars.append(c);
             }
         }
-        String cleanid = cleanChars.toString();
-        int suffix = 0;
-        while (_usedIDs.contains(cleanid + ++suffix)) ;
-        String result = cleanid + suffix;
-        _usedIDs.add(result);
-        return result;
-    }
-
-
 
+        // a prefix never ends in a digit, so its suffix can always be told apart
+        // (e.g. "a1" and "a1_" share the prefix "a1_", rather than both making "a1_1")
+        int len = cleanChars.length();
+        if (len > 0 && Character.isDigit(cleanChars.charAt(len - 1))) {
+            cleanChars.append('_');
+        }
+        String prefix = cleanChars.toString();
+        int suffix = _counters.computeIfAbsent(prefix, k -> new AtomicInteger())
+                .incrementAndGet();
+        return cleanChars.append(suffix).toString();
+    }
 
 }
@@ -66,6 +66,19 @@ public class ActionRibbon extends HorizontalLayout {
         return icon;
     }
     
+    public ActionIcon addDownloadAction(VaadinIcon vaadinicon,
+                                        Supplier<String> fileName,
+                                        String tooltip,
+                                        String contentType,
+                                        Supplier<DownloadIconWrapper.ContentWriter> contentSupplier,
+                                        Runnable downloadCallback) {
+        ActionIcon icon = new ActionIcon(vaadinicon, ActionIcon.DEFAULT_HOVER,
+                tooltip, null);
+        this.add(new DownloadIconWrapper(icon, fileName, contentType, contentSupplier,
+                downloadCallback));
+        return icon;
+    }
+
     // adds a disabled icon
     public ActionIcon add(VaadinIcon iconName) {
         ActionIcon icon = new ActionIcon(iconName);
@@ -63,7 +63,7 @@ public class DrawerMenu extends Tabs {
             add(createTab(VaadinIcon.LINK, "Services / Clients"));
             add(createTab(VaadinIcon.GRID, "Log Viewer"));
             add(createTab(VaadinIcon.CALENDAR_CLOCK, "Calendar"));
-            if (new InstalledServices().hasWorkletService()) {
+            if (InstalledServices.getInstance().hasWorkletService()) {
                 add(createTab(VaadinIcon.WRENCH, "Worklet Admin"));
             }
         }
@@ -1,11 +1,19 @@
 package org.yawlfoundation.yawl.ui.service;
 
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.shared.Registration;
 import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.yawlfoundation.yawl.ui.util.ApplicationProperties;
 import org.yawlfoundation.yawl.util.XNode;
 import org.yawlfoundation.yawl.util.XNodeParser;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * @author Michael Adams
@@ -18,11 +26,49 @@ public abstract class AbstractClient {
     private static final ImmutablePair<String, String> SERVICE =
             new ImmutablePair<>("yawlUI", "yYUI");
 
-    private static final Set<ClientEventListener> listeners = new HashSet<>();
+    // the messages returned by the engine and services for a stale session handle
+    private static final String[] INVALID_SESSION_MSGS = {
+            "Invalid or expired session", "Invalid or disconnected session" };
 
-    protected String _handle;
+    // revalidates the session handles of all clients, off the request threads
+    private static final ScheduledExecutorService LEASE_VALIDATOR =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "yawlui-handle-validator");
+                t.setDaemon(true);
+                return t;
+            });
 
-    protected AbstractClient() { }
+    // runs the async variants of service calls, one virtual thread per call
+    private static final ExecutorService ASYNC_EXECUTOR =
+            Executors.newVirtualThreadPerTaskExecutor();
+
+    private static final Duration DEFAULT_ASYNC_TIMEOUT = Duration.ofSeconds(
+            ApplicationProperties.getClientAsyncTimeoutSeconds());
+
+    // events are announced from the request threads of any session
+    private static final Set<ClientEventListener> listeners = new CopyOnWriteArraySet<>();
+
+    // written only while holding the connect lock, read freely
+    protected volatile String _handle;
+
+    // the handle is trusted without a server check until the lease expires
+    private final long _leaseMsecs;
+    private volatile long _leaseExpiry;
+
+    // ensures only one thread (re)connects, while any others wait for its result
+    private final ReentrantLock _connectLock = new ReentrantLock();
+
+    // the periodic background check of the handle, while one is held
+    private ScheduledFuture<?> _revalidation;
+
+    private final AtomicLong _validationsAvoided = new AtomicLong();
+    private final AtomicLong _reconnects = new AtomicLong();
+
+
+    protected AbstractClient() {
+        _leaseMsecs = TimeUnit.SECONDS.toMillis(
+                ApplicationProperties.getClientHandleLeaseSeconds());
+    }
 
 
     abstract void connect() throws IOException;
@@ -41,18 +87,175 @@ public abstract class AbstractClient {
 
 
     protected String getHandle() throws IOException {
-        connect();
-        return _handle;
+        String handle = _handle;
+        if (hasLease(handle)) {
+            _validationsAvoided.incrementAndGet();
+            return handle;
+        }
+        _connectLock.lock();
+        try {
+            handle = _handle;
+            if (hasLease(handle)) {                 // renewed while this thread waited
+                return handle;
+            }
+            connect();
+            if (handle != null && ! handle.equals(_handle)) {
+                _reconnects.incrementAndGet();
+            }
+            renewLease();
+            scheduleRevalidation();
+            return _handle;
+        }
+        finally {
+            _connectLock.unlock();
+        }
+    }
+
+
+    /**
+     * Makes a service call using the current session handle. If the call fails
+     * because the handle has gone stale, a new handle is obtained and the call is
+     * made once more.
+     * @param call the service call to make, given the handle to use
+     * @return the result of the call
+     */
+    protected <T, E extends Exception> T call(HandleCall<T, E> call) throws IOException, E {
+        String handle = getHandle();
+        try {
+            T result = call.apply(handle);
+            if (! (result instanceof String && isInvalidSession((String) result))) {
+                return result;
+            }
+        }
+        catch (Exception e) {
+            if (! isInvalidSession(e.getMessage())) {
+                throw e;
+            }
+        }
+        expireLease(handle);
+        return call.apply(getHandle());
     }
 
 
+    // as for call, but for service calls that have no result
+    protected <E extends Exception> void run(HandleTask<E> task) throws IOException, E {
+        call(h -> {
+            task.apply(h);
+            return null;
+        });
+    }
+
+
+    /**
+     * Runs a blocking service call on a virtual thread, so that the calling (UI)
+     * thread is not held up waiting for the service to respond.
+     * @param task the blocking call to make
+     * @param timeout how long to wait for the call to complete before the returned
+     *                future completes exceptionally with a TimeoutException. A zero
+     *                or negative duration means no timeout
+     * @return a future that completes with the result of the call
+     */
+    protected <T> CompletableFuture<T> async(Callable<T> task, Duration timeout) {
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.call();
+            }
+            catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, ASYNC_EXECUTOR);
+        if (timeout != null && timeout.isPositive()) {
+            future = future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return future;
+    }
+
+
+    protected <T> CompletableFuture<T> async(Callable<T> task) {
+        return async(task, DEFAULT_ASYNC_TIMEOUT);
+    }
+
+
+    // disconnects using the handle held, if any - a client without a handle has
+    // nothing to release, so it isn't connected just to be disconnected
+    protected <E extends Exception> void releaseHandle(HandleTask<E> disconnect)
+            throws IOException, E {
+        String handle = _handle;
+        try {
+            if (handle != null) {
+                disconnect.apply(handle);
+            }
+        }
+        finally {
+            clearHandle();
+        }
+    }
+
+
+    // when a client disconnects, its handle is no longer usable
+    protected void clearHandle() {
+        _connectLock.lock();
+        try {
+            _handle = null;
+            _leaseExpiry = 0;
+            if (_revalidation != null) {
+                _revalidation.cancel(false);
+                _revalidation = null;
+            }
+        }
+        finally {
+            _connectLock.unlock();
+        }
+    }
+
+
+    boolean hasHandle() { return _handle != null; }
+
+
+    public long getValidationsAvoided() { return _validationsAvoided.get(); }
+
+    public long getReconnectCount() { return _reconnects.get(); }
+
+
     protected String buildURI(String host, String port, String path) {
         return String.format("http://%s:%s/%s", host, port, path);
     }
 
 
-    public void addEventListener(ClientEventListener listener) {
+    // for listeners that aren't part of a UI, e.g. shared caches
+    public Registration addEventListener(ClientEventListener listener) {
         listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+
+    /**
+     * Adds a listener on behalf of a UI component. The listener is registered only
+     * while the component is attached, and is called via UI.access on the
+     * component's own UI, since events may be announced from any session's thread
+     * @param owner the component the listener updates
+     * @param listener the listener
+     * @return a registration that removes the listener for good
+     */
+    public Registration addEventListener(Component owner, ClientEventListener listener) {
+        ClientEventListener uiListener = event -> owner.getUI().ifPresent(ui -> {
+            try {
+                ui.access(() -> listener.onClientEvent(event));
+            }
+            catch (UIDetachedException e) {
+                // closing - the detach listener will remove it
+            }
+        });
+        if (owner.isAttached()) {
+            listeners.add(uiListener);
+        }
+        Registration onAttach = owner.addAttachListener(e -> listeners.add(uiListener));
+        Registration onDetach = owner.addDetachListener(e -> listeners.remove(uiListener));
+        return () -> {
+            listeners.remove(uiListener);
+            onAttach.remove();
+            onDetach.remove();
+        };
     }
 
 
@@ -61,8 +264,16 @@ public abstract class AbstractClient {
     }
 
 
+    // a listener that fails doesn't stop the others from hearing of the event
     protected void announceEvent(ClientEvent event) {
-        listeners.forEach(l -> l.onClientEvent(event));
+        for (ClientEventListener listener : listeners) {
+            try {
+                listener.onClientEvent(event);
+            }
+            catch (RuntimeException e) {
+                // the listener's problem - carry on
+            }
+        }
     }
 
 
@@ -81,4 +292,75 @@ public abstract class AbstractClient {
         return Collections.emptyMap();
     }
 
+
+    private boolean hasLease(String handle) {
+        return handle != null && System.currentTimeMillis() < _leaseExpiry;
+    }
+
+
+    private void renewLease() {
+        _leaseExpiry = System.currentTimeMillis() + _leaseMsecs;
+    }
+
+
+    // called with the connect lock held - started when a handle is first obtained,
+    // and cancelled when it is released
+    private void scheduleRevalidation() {
+        if (_leaseMsecs > 0 && _revalidation == null) {
+            _revalidation = LEASE_VALIDATOR.scheduleWithFixedDelay(this::revalidate,
+                    _leaseMsecs, _leaseMsecs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+
+    // only expire the lease if the handle hasn't been replaced in the meantime
+    private void expireLease(String staleHandle) {
+        if (staleHandle != null && staleHandle.equals(_handle)) {
+            _leaseExpiry = 0;
+        }
+    }
+
+
+    // background check of a leased handle - a failed check means the next call
+    // will reconnect, rather than reconnecting here
+    private void revalidate() {
+        String handle = _handle;
+        if (handle == null) return;
+        try {
+            if (connected() && handle.equals(_handle)) {
+                renewLease();
+            }
+            else {
+                expireLease(handle);
+            }
+        }
+        catch (Exception e) {
+            expireLease(handle);
+        }
+    }
+
+
+    private boolean isInvalidSession(String msg) {
+        if (msg != null) {
+            for (String invalid : INVALID_SESSION_MSGS) {
+                if (msg.contains(invalid)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+
+    @FunctionalInterface
+    protected interface HandleCall<T, E extends Exception> {
+        T apply(String handle) throws IOException, E;
+    }
+
+
+    @FunctionalInterface
+    protected interface HandleTask<E extends Exception> {
+        void apply(String handle) throws IOException, E;
+    }
+
 }
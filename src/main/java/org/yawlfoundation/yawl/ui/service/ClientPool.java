@@ -0,0 +1,53 @@
+package org.yawlfoundation.yawl.ui.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A fixed set of clients for one service, each holding its own session handle.
+ * Calling threads are spread across the set, so that concurrent sessions don't
+ * all contend for (and reconnect through) a single client.
+ *
+ * @author Michael Adams
+ * @date 18/10/2026
+ */
+class ClientPool<T extends AbstractClient> {
+
+    private final List<T> _clients;
+
+
+    ClientPool(Supplier<T> factory, int size) {
+        List<T> clients = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, size); i++) {
+            clients.add(factory.get());
+        }
+        _clients = Collections.unmodifiableList(clients);
+    }
+
+
+    // each thread maps to the same client for as long as it lives
+    T get() {
+        if (_clients.size() == 1) {
+            return _clients.get(0);
+        }
+        long stripe = Thread.currentThread().threadId();
+        return _clients.get((int) Math.floorMod(stripe, (long) _clients.size()));
+    }
+
+
+    List<T> getAll() { return _clients; }
+
+
+    // disconnects only those clients that have connected
+    void disconnect() throws IOException {
+        for (T client : _clients) {
+            if (client.hasHandle()) {
+                client.disconnect();
+            }
+        }
+    }
+
+}
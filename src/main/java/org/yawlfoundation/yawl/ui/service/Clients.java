@@ -1,26 +1,58 @@
 package org.yawlfoundation.yawl.ui.service;
 
+import org.yawlfoundation.yawl.ui.util.ApplicationProperties;
+import org.yawlfoundation.yawl.ui.util.InstalledServices;
+import org.yawlfoundation.yawl.ui.util.TaskPrivilegesCache;
+import org.yawlfoundation.yawl.ui.util.TypeTreeCache;
+
+import java.io.IOException;
+
 /**
  * @author Michael Adams
  * @date 7/12/2022
  */
 public class Clients {
 
-    private static final ResourceClient _resClient = new ResourceClient();
-    private static final EngineClient _engClient = new EngineClient();
-    private static final WorkletClient _wsClient = new WorkletClient();
-    private static final DocStoreClient _docClient = new DocStoreClient();
-    private static final LogClient _logClient = new LogClient();
+    private static final int POOL_SIZE = ApplicationProperties.getClientPoolSize();
+
+    private static final TaskPrivilegesCache _taskPrivilegesCache = new TaskPrivilegesCache();
+
+    private static final ParticipantDirectory _participantDirectory =
+            new ParticipantDirectory(() -> getResourceClient().loadParticipants());
+
+    private static final ClientPool<ResourceClient> _resClients = new ClientPool<>(
+            () -> new ResourceClient(_taskPrivilegesCache, _participantDirectory), POOL_SIZE);
+    private static final ClientPool<EngineClient> _engClients =
+            new ClientPool<>(EngineClient::new, POOL_SIZE);
+    private static final ClientPool<WorkletClient> _wsClients =
+            new ClientPool<>(WorkletClient::new, POOL_SIZE);
+    private static final ClientPool<DocStoreClient> _docClients =
+            new ClientPool<>(DocStoreClient::new, POOL_SIZE);
+    private static final ClientPool<LogClient> _logClients =
+            new ClientPool<>(LogClient::new, POOL_SIZE);
+
+    static {
+        getEngineClient().addEventListener(_taskPrivilegesCache);
+        getEngineClient().addEventListener(TypeTreeCache.getInstance());
+        getResourceClient().addEventListener(InstalledServices.getInstance());
+    }
+
+
+    public static ResourceClient getResourceClient() { return _resClients.get(); }
 
+    public static EngineClient getEngineClient() { return _engClients.get(); }
 
-    public static ResourceClient getResourceClient() { return _resClient; }
+    public static WorkletClient getWorkletClient() { return _wsClients.get(); }
 
-    public static EngineClient getEngineClient() { return _engClient; }
+    public static DocStoreClient getDocStoreClient() { return _docClients.get(); }
 
-    public static WorkletClient getWorkletClient() { return _wsClient; }
+    public static LogClient getLogClient() { return _logClients.get(); }
 
-    public static DocStoreClient getDocStoreClient() { return _docClient; }
 
-    public static LogClient getLogClient() { return _logClient; }
+    // disconnects the resource service and engine sessions of every pooled client
+    public static void disconnect() throws IOException {
+        _resClients.disconnect();
+        _engClients.disconnect();
+    }
 
 }
@@ -0,0 +1,199 @@
+package org.yawlfoundation.yawl.ui.service;
+
+import com.vaadin.flow.server.SessionDestroyEvent;
+import com.vaadin.flow.server.VaadinSession;
+import org.yawlfoundation.yawl.resourcing.resource.Participant;
+import org.yawlfoundation.yawl.ui.util.ApplicationProperties;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The custom form session handles of the users logged on to this UI. Each handle
+ * belongs to a Vaadin session, and is removed (and logged out of the resource
+ * service) when the user logs out or when their session ends. Handles are indexed
+ * for the custom form servlet, which also uses this registry to limit how often it
+ * rechecks a handle with the resource service, or that a work item was started by
+ * the handle's user.
+ *
+ * @author Michael Adams
+ * @date 18/10/2026
+ */
+public class CustomFormHandleRegistry {
+
+    private static final CustomFormHandleRegistry INSTANCE = new CustomFormHandleRegistry();
+
+    // the session attribute holding the session's handle
+    private static final String HANDLE_ATTRIBUTE = "yawlui.customform.handle";
+
+    // handle -> its user, and when its last validation expires
+    private final Map<String, Entry> _entries = new ConcurrentHashMap<>();
+
+    private final long _validationTTLMsecs;
+    private final AtomicBoolean _listening = new AtomicBoolean();
+
+    private final AtomicLong _registered = new AtomicLong();
+    private final AtomicLong _loggedOut = new AtomicLong();
+    private final AtomicLong _expired = new AtomicLong();
+
+
+    private CustomFormHandleRegistry() {
+        _validationTTLMsecs = TimeUnit.SECONDS.toMillis(
+                ApplicationProperties.getCustomFormSessionCacheSeconds());
+    }
+
+
+    public static CustomFormHandleRegistry getInstance() { return INSTANCE; }
+
+
+    /**
+     * Registers the handle of a user who has logged on, replacing any handle the
+     * session already had
+     * @param session the user's session (its lock must be held)
+     * @param user the user
+     * @param handle the user's custom form handle
+     */
+    public void register(VaadinSession session, Participant user, String handle) {
+        if (session == null || handle == null) return;
+        listenForSessionEnd(session);
+        remove(session);
+        session.setAttribute(HANDLE_ATTRIBUTE, handle);
+        _entries.put(handle, new Entry(user));
+        _registered.incrementAndGet();
+    }
+
+
+    // called on logout - returns the session's handle, or null if it had none
+    public String remove(VaadinSession session) {
+        if (session == null) return null;
+        String handle = (String) session.getAttribute(HANDLE_ATTRIBUTE);
+        if (handle != null) {
+            session.setAttribute(HANDLE_ATTRIBUTE, null);
+            if (_entries.remove(handle) != null) {
+                _loggedOut.incrementAndGet();
+            }
+        }
+        return handle;
+    }
+
+
+    public String getHandle(VaadinSession session) {
+        return session != null ? (String) session.getAttribute(HANDLE_ATTRIBUTE) : null;
+    }
+
+
+    public Participant getParticipant(String handle) {
+        Entry entry = _entries.get(handle);
+        return entry != null ? entry.user : null;
+    }
+
+
+    /**
+     * Checks that a handle was issued to a user logged on here and is still valid.
+     * Unknown handles are rejected without a service call, and a handle found valid
+     * is not checked again until the validation time-to-live has passed
+     * @param handle the handle to check
+     * @return true if the handle is valid
+     */
+    public boolean isValid(String handle) throws IOException {
+        Entry entry = _entries.get(handle);
+        if (entry == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        if (now < entry.validUntil) {
+            return true;
+        }
+        if (Clients.getResourceClient().isValidUserSessionHandle(handle)) {
+            entry.validUntil = now + _validationTTLMsecs;
+            return true;
+        }
+        return false;
+    }
+
+
+    /**
+     * Checks whether a work item was found to be started by a handle's user within
+     * the validation time-to-live
+     * @param handle the user's handle
+     * @param itemID the work item's id
+     * @return true if the item's started check need not be repeated
+     */
+    public boolean isStartedItem(String handle, String itemID) {
+        Entry entry = _entries.get(handle);
+        if (entry == null) {
+            return false;
+        }
+        Long validUntil = entry.startedItems.get(itemID);
+        return validUntil != null && System.currentTimeMillis() < validUntil;
+    }
+
+
+    public void setStartedItem(String handle, String itemID) {
+        Entry entry = _entries.get(handle);
+        if (entry != null) {
+            long now = System.currentTimeMillis();
+            entry.startedItems.values().removeIf(validUntil -> validUntil <= now);
+            entry.startedItems.put(itemID, now + _validationTTLMsecs);
+        }
+    }
+
+
+    // called when the item is completed
+    public void removeStartedItem(String handle, String itemID) {
+        Entry entry = _entries.get(handle);
+        if (entry != null) {
+            entry.startedItems.remove(itemID);
+        }
+    }
+
+
+    public boolean isEmpty() { return _entries.isEmpty(); }
+
+    public int getActiveHandleCount() { return _entries.size(); }
+
+    public long getRegisteredCount() { return _registered.get(); }
+
+    public long getLoggedOutCount() { return _loggedOut.get(); }
+
+    public long getExpiredCount() { return _expired.get(); }
+
+
+    // the destroy listener is added to the application's service on first use
+    private void listenForSessionEnd(VaadinSession session) {
+        if (_listening.compareAndSet(false, true)) {
+            session.getService().addSessionDestroyListener(this::sessionDestroyed);
+        }
+    }
+
+
+    // the user left without logging out
+    private void sessionDestroyed(SessionDestroyEvent event) {
+        VaadinSession session = event.getSession();
+        String handle = (String) session.getAttribute(HANDLE_ATTRIBUTE);
+        if (handle != null) {
+            session.setAttribute(HANDLE_ATTRIBUTE, null);
+            if (_entries.remove(handle) != null) {
+                _expired.incrementAndGet();
+                Clients.getResourceClient().userLogout(handle);
+            }
+        }
+    }
+
+
+    private static class Entry {
+
+        final Participant user;
+        volatile long validUntil;                  // 0 until first validated
+
+        // item id -> when its started check expires
+        final Map<String, Long> startedItems = new ConcurrentHashMap<>();
+
+        Entry(Participant user) { this.user = user; }
+    }
+
+}
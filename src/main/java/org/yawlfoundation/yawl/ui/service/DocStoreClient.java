@@ -28,12 +28,12 @@ public class DocStoreClient extends AbstractClient {
 
 
     public YDocument getStoredDocument(long docID) throws IOException {
-        return _client.getDocument(docID, getHandle());
+        return call(h -> _client.getDocument(docID, h));
     }
 
 
     public long putStoredDocument(YDocument doc) throws IOException {
-        String id = _client.putDocument(doc, getHandle());
+        String id = call(h -> _client.putDocument(doc, h));
         if (successful(id)) {
             return Long.parseLong(StringUtil.unwrap(id));
         }
@@ -42,7 +42,7 @@ public class DocStoreClient extends AbstractClient {
 
 
     public void removeStoredDocument(long docID) throws IOException {
-        _client.removeDocument(docID, getHandle());
+        call(h -> _client.removeDocument(docID, h));
     }
 
 
@@ -76,8 +76,7 @@ public class DocStoreClient extends AbstractClient {
 
     @Override
     public void disconnect() throws IOException {
-        connect();
-        _client.disconnect(_handle);
+        releaseHandle(h -> _client.disconnect(h));
     }
     
 }
@@ -12,8 +12,11 @@ import org.yawlfoundation.yawl.util.StringUtil;
 import org.yawlfoundation.yawl.util.XNode;
 import org.yawlfoundation.yawl.util.XNodeParser;
 
+import java.io.File;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author Michael Adams
@@ -44,13 +47,13 @@ public class EngineClient extends AbstractClient {
 
 
     public List<YExternalClient> getClientApplications() throws IOException {
-        Set<YExternalClient> clients = _iaClient.getClientAccounts(getHandle());
+        Set<YExternalClient> clients = call(h -> _iaClient.getClientAccounts(h));
         return clients != null ? new ArrayList<>(clients) : Collections.emptyList();
     }
 
 
     public List<RunningCase> getRunningCases() throws IOException {
-        String casesStr = _ibClient.getAllRunningCases(getHandle());
+        String casesStr = call(h -> _ibClient.getAllRunningCases(h));
         if (_ibClient.successful(casesStr)) {
             XNode node = new XNodeParser().parse(StringUtil.unwrap(casesStr));
             ArrayList<RunningCase> caseList = new ArrayList<>();
@@ -71,8 +74,28 @@ public class EngineClient extends AbstractClient {
     }
 
 
+    public CompletableFuture<List<RunningCase>> getRunningCasesAsync() {
+        return async(this::getRunningCases);
+    }
+
+
+    public CompletableFuture<List<RunningCase>> getRunningCasesAsync(Duration timeout) {
+        return async(this::getRunningCases, timeout);
+    }
+
+
     public UploadResult uploadSpecification(String content) throws IOException {
-        String msg = _iaClient.uploadSpecification(content, getHandle());
+        String msg = call(h -> _iaClient.uploadSpecification(content, h));
+        if (!_iaClient.successful(msg)) {
+            throw new IOException(StringUtil.unwrap(msg));
+        }
+        return new UploadResult(msg);
+    }
+
+
+    // the interface client reads the file itself, so the caller needn't hold its content
+    public UploadResult uploadSpecification(File file) throws IOException {
+        String msg = call(h -> _iaClient.uploadSpecification(file, h));
         if (!_iaClient.successful(msg)) {
             throw new IOException(StringUtil.unwrap(msg));
         }
@@ -81,7 +104,7 @@ public class EngineClient extends AbstractClient {
 
 
     public boolean unloadSpecification(YSpecificationID specID) throws IOException {
-        String msg = _iaClient.unloadSpecification(specID, getHandle());
+        String msg = call(h -> _iaClient.unloadSpecification(specID, h));
         if (!_iaClient.successful(msg)) {
             throw new IOException(StringUtil.unwrap(msg));
         }
@@ -91,7 +114,7 @@ public class EngineClient extends AbstractClient {
 
 
     public String launchCase(YSpecificationID specID, String caseData) throws IOException {
-        String msg = _ibClient.launchCase(specID, caseData, null, getHandle());
+        String msg = call(h -> _ibClient.launchCase(specID, caseData, null, h));
         if (!_iaClient.successful(msg)) {
             throw new IOException(StringUtil.unwrap(msg));
         }
@@ -101,7 +124,7 @@ public class EngineClient extends AbstractClient {
 
 
     public String launchCase(YSpecificationID specID, String caseData, long msecs) throws IOException {
-        String msg = _ibClient.launchCase(specID, caseData, getHandle(), null, null, msecs);
+        String msg = call(h -> _ibClient.launchCase(specID, caseData, h, null, null, msecs));
         if (!_iaClient.successful(msg)) {
             throw new IOException(StringUtil.unwrap(msg));
         }
@@ -111,17 +134,17 @@ public class EngineClient extends AbstractClient {
 
 
     public void cancelCase(String caseID) throws IOException {
-        _ibClient.cancelCase(caseID, getHandle());
+        call(h -> _ibClient.cancelCase(caseID, h));
     }
 
 
     public boolean canCreateNewInstance(String itemID) throws IOException {
-        return successful(_ibClient.checkPermissionToAddInstances(itemID, getHandle()));
+        return successful(call(h -> _ibClient.checkPermissionToAddInstances(itemID, h)));
     }
 
     public WorkItemRecord createNewInstance(String itemID, String paramValue)
             throws IOException {
-        String xml = _ibClient.createNewInstance(itemID, paramValue, getHandle());
+        String xml = call(h -> _ibClient.createNewInstance(itemID, paramValue, h));
         if (successful(xml)) {
             String wirXML = StringUtil.unwrap(xml);          // strip 'success' tags
             return Marshaller.unmarshalWorkItem(wirXML);
@@ -130,7 +153,7 @@ public class EngineClient extends AbstractClient {
     }
 
     public String getSpecificationDataSchema(YSpecificationID specID) throws IOException {
-        String xml = _ibClient.getSpecificationDataSchema(specID, getHandle());
+        String xml = call(h -> _ibClient.getSpecificationDataSchema(specID, h));
         if (successful(xml)) {
             return xml;
         }
@@ -145,13 +168,13 @@ public class EngineClient extends AbstractClient {
 
     public TaskInformation getTaskInformation(YSpecificationID specID, String taskID)
             throws IOException {
-        String xml = _ibClient.getTaskInformationStr(specID, taskID, getHandle());
+        String xml = call(h -> _ibClient.getTaskInformationStr(specID, taskID, h));
         return successful(xml) ? _ibClient.parseTaskInformation(xml) : null;
     }
 
 
     public YSpecificationID getSpecificationIDForCase(String caseID) throws IOException {
-        String xml = _ibClient.getSpecificationIDForCase(caseID, getHandle());
+        String xml = call(h -> _ibClient.getSpecificationIDForCase(caseID, h));
         if (! successful(xml))  {
             throw new IOException("Malformed specification id returned from engine");
         }
@@ -164,7 +187,7 @@ public class EngineClient extends AbstractClient {
 
 
     public Map<String, String> getBuildProperties() throws IOException {
-        String props = _iaClient.getBuildProperties(getHandle());
+        String props = call(h -> _iaClient.getBuildProperties(h));
         if (successful(props)) {
             return buildPropertiesToMap(StringUtil.unwrap(props));
         }
@@ -198,8 +221,7 @@ public class EngineClient extends AbstractClient {
 
     @Override
     public void disconnect() throws IOException {
-        connect();
-        _iaClient.disconnect(_handle);
+        releaseHandle(h -> _iaClient.disconnect(h));
     }
     
 }
@@ -25,7 +25,7 @@ public class LogClient extends EngineClient {
 
 
     public List<YSpecificationID> getAllSpecifications() throws IOException {
-        String xml = _logClient.getAllSpecifications(getHandle());
+        String xml = call(h -> _logClient.getAllSpecifications(h));
         if (successful(xml)) {
             List<YSpecificationID> idList = new ArrayList<>();
             XNode specsNode = new XNodeParser().parse(xml);
@@ -39,36 +39,36 @@ public class LogClient extends EngineClient {
 
 
     public List<Object> getAllCasesOfSpecification(YSpecificationID specID) throws IOException {
-        String xml = _logClient.getCompleteCaseLogsForSpecification(specID.getIdentifier(),
-                specID.getVersionAsString(), specID.getUri(), getHandle());
+        String xml = call(h -> _logClient.getCompleteCaseLogsForSpecification(specID.getIdentifier(),
+                specID.getVersionAsString(), specID.getUri(), h));
         successCheck(xml);
         return unmarshalCases(xml);
     }
 
 
     public List<Object> getCaseEvents(String caseID) throws IOException {
-        String xml = _logClient.getCaseEvents(caseID, getHandle());
+        String xml = call(h -> _logClient.getCaseEvents(caseID, h));
         successCheck(xml);
         return unmarshalCase(xml);
     }
 
 
     public List<Object> getAllCasesStartedByService(String serviceName) throws IOException {
-        String xml = _logClient.getAllCasesStartedByService(serviceName, getHandle());
+        String xml = call(h -> _logClient.getAllCasesStartedByService(serviceName, h));
         successCheck(xml);
         return unmarshalCases(xml);
     }
 
 
     public List<Object> getAllCasesCancelledByService(String serviceName) throws IOException {
-        String xml = _logClient.getAllCasesCancelledByService(serviceName, getHandle());
+        String xml = call(h -> _logClient.getAllCasesCancelledByService(serviceName, h));
         successCheck(xml);
         return unmarshalCases(xml);
      }
 
 
     public LogStatistics getStatistics(YSpecificationID specID, long from, long to) throws IOException {
-        String xml = _logClient.getSpecificationStatistics(specID, from, to, getHandle());
+        String xml = call(h -> _logClient.getSpecificationStatistics(specID, from, to, h));
         successCheck(xml);
         LogStatistics stats = new LogStatistics(xml);
         stats.setFrom(from);
@@ -0,0 +1,120 @@
+package org.yawlfoundation.yawl.ui.service;
+
+import org.yawlfoundation.yawl.resourcing.resource.Participant;
+import org.yawlfoundation.yawl.resourcing.rsInterface.ResourceGatewayException;
+import org.yawlfoundation.yawl.ui.util.ApplicationProperties;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An application-wide copy of the resource service's participant list, indexed by id,
+ * user id and full name. The list is
+ * refetched once its time-to-live has passed, or after a participant is added, updated
+ * or removed through this UI. The participants are shared, so callers must not change
+ * them - edit a clone instead.
+ *
+ * @author Michael Adams
+ * @date 18/10/2026
+ */
+public class ParticipantDirectory {
+
+    private final Loader _loader;
+    private final long _ttlMsecs;
+    private volatile Snapshot _snapshot;
+
+    // bumped on each invalidation, so that a fetch begun before it isn't kept
+    private final AtomicLong _generation = new AtomicLong();
+
+
+    ParticipantDirectory(Loader loader) {
+        _loader = loader;
+        _ttlMsecs = TimeUnit.SECONDS.toMillis(
+                ApplicationProperties.getParticipantDirectoryTTLSeconds());
+    }
+
+
+    // a new list each call, so callers may sort or filter it
+    public List<Participant> getAll() throws IOException, ResourceGatewayException {
+        return new ArrayList<>(getSnapshot().participants);
+    }
+
+
+    public Participant getByID(String id) throws IOException, ResourceGatewayException {
+        return getSnapshot().byID.get(id);
+    }
+
+
+    public Participant getByUserID(String userID)
+            throws IOException, ResourceGatewayException {
+        return getSnapshot().byUserID.get(userID);
+    }
+
+
+    public Participant getByFullName(String fullName)
+            throws IOException, ResourceGatewayException {
+        return getSnapshot().byFullName.get(fullName);
+    }
+
+
+    // the next read will refetch the list
+    public void invalidate() {
+        _generation.incrementAndGet();
+        _snapshot = null;
+    }
+
+
+    private Snapshot getSnapshot() throws IOException, ResourceGatewayException {
+        Snapshot snapshot = _snapshot;
+        if (snapshot == null || snapshot.hasExpired()) {
+            snapshot = refresh();
+        }
+        return snapshot;
+    }
+
+
+    private synchronized Snapshot refresh() throws IOException, ResourceGatewayException {
+        Snapshot snapshot = _snapshot;
+        if (snapshot == null || snapshot.hasExpired()) {        // else refreshed while waiting
+            long generation = _generation.get();
+            List<Participant> participants = _loader.load();
+            snapshot = new Snapshot(participants != null ? participants :
+                    Collections.emptyList(), System.currentTimeMillis() + _ttlMsecs);
+            if (generation == _generation.get()) {
+                _snapshot = snapshot;
+            }
+        }
+        return snapshot;
+    }
+
+
+    @FunctionalInterface
+    interface Loader {
+        List<Participant> load() throws IOException, ResourceGatewayException;
+    }
+
+
+    private static class Snapshot {
+
+        final List<Participant> participants;
+        final Map<String, Participant> byID = new HashMap<>();
+        final Map<String, Participant> byUserID = new HashMap<>();
+        final Map<String, Participant> byFullName = new HashMap<>();
+        final long expiry;
+
+        Snapshot(List<Participant> pList, long expiry) {
+            participants = Collections.unmodifiableList(new ArrayList<>(pList));
+            for (Participant p : participants) {
+                byID.put(p.getID(), p);
+                byUserID.put(p.getUserID(), p);
+                byFullName.putIfAbsent(p.getFullName(), p);       // names may be shared
+            }
+            this.expiry = expiry;
+        }
+
+        boolean hasExpired() { return System.currentTimeMillis() >= expiry; }
+    }
+
+}
@@ -19,12 +19,15 @@ import org.yawlfoundation.yawl.resourcing.resource.nonhuman.NonHumanCategory;
 import org.yawlfoundation.yawl.resourcing.resource.nonhuman.NonHumanResource;
 import org.yawlfoundation.yawl.resourcing.rsInterface.*;
 import org.yawlfoundation.yawl.ui.util.ApplicationProperties;
+import org.yawlfoundation.yawl.ui.util.ParallelFetch;
 import org.yawlfoundation.yawl.ui.util.TaskPrivilegesCache;
 import org.yawlfoundation.yawl.util.*;
 
 import java.io.IOException;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 public class ResourceClient extends AbstractClient {
 
@@ -33,11 +36,22 @@ public class ResourceClient extends AbstractClient {
     private final ResourceLogGatewayClient _logClient;
     private final ResourceCalendarGatewayClient _calClient;
 
-    public final TaskPrivilegesCache _taskPrivilegesCache = new TaskPrivilegesCache(this);
+    private final TaskPrivilegesCache _taskPrivilegesCache;
+    private final ParticipantDirectory _participantDirectory;
 
 
     public ResourceClient() {
+        this(new TaskPrivilegesCache(), null);
+        addEventListener(_taskPrivilegesCache);
+    }
+
+
+    // pooled clients share a single privileges cache and participant directory
+    ResourceClient(TaskPrivilegesCache privilegesCache, ParticipantDirectory directory) {
         super();
+        _taskPrivilegesCache = privilegesCache;
+        _participantDirectory = directory != null ? directory :
+                new ParticipantDirectory(this::loadParticipants);
 
         String host = ApplicationProperties.getResourceServiceHost();
         String port = ApplicationProperties.getResourceServicePort();
@@ -53,35 +67,50 @@ public class ResourceClient extends AbstractClient {
 
 
     public QueueSet getAdminWorkQueues() throws IOException, ResourceGatewayException {
-        return _wqAdapter.getAdminQueues(getHandle());
+        return call(h -> _wqAdapter.getAdminQueues(h));
     }
 
 
     public QueueSet getUserWorkQueues(String pid) throws IOException, ResourceGatewayException {
-        return _wqAdapter.getParticipantQueues(pid, getHandle());
+        return call(h -> _wqAdapter.getParticipantQueues(pid, h));
+    }
+
+
+    public CompletableFuture<QueueSet> getAdminWorkQueuesAsync() {
+        return async(this::getAdminWorkQueues);
+    }
+
+
+    public CompletableFuture<QueueSet> getUserWorkQueuesAsync(String pid) {
+        return async(() -> getUserWorkQueues(pid));
+    }
+
+
+    public CompletableFuture<QueueSet> getUserWorkQueuesAsync(String pid, Duration timeout) {
+        return async(() -> getUserWorkQueues(pid), timeout);
     }
 
 
     public WorkItemRecord getItem(String itemID) throws IOException, ResourceGatewayException {
-        String xml = _wqAdapter.getWorkItem(itemID, getHandle());
+        String xml = call(h -> _wqAdapter.getWorkItem(itemID, h));
         return Marshaller.unmarshalWorkItem(xml);
     }
 
 
     public Set<WorkItemRecord> getQueuedItems(String pid, int queue)
             throws IOException, ResourceGatewayException {
-        return _wqAdapter.getQueuedWorkItems(pid, queue, getHandle());
+        return call(h -> _wqAdapter.getQueuedWorkItems(pid, queue, h));
     }
 
     
     public void updateWorkQueuedItem(WorkItemRecord wir, Participant p, int queue)
             throws IOException, ResourceGatewayException {
-        _wqAdapter.updateWorkQueuedItem(wir.toXML(), p.getID(), queue, getHandle());
+        call(h -> _wqAdapter.updateWorkQueuedItem(wir.toXML(), p.getID(), queue, h));
     }
 
     public void setWorkItemDocumentation(WorkItemRecord wir, String doco) {
         try {
-            _wqAdapter.setWorkItemDocumentation(wir.getID(), doco, getHandle());
+            call(h -> _wqAdapter.setWorkItemDocumentation(wir.getID(), doco, h));
         }
         catch (ResourceGatewayException | IOException e) {
             //  nothing to do;
@@ -91,91 +120,91 @@ public class ResourceClient extends AbstractClient {
 
     public void offerItem(String itemID, Set<String> pidSet)
             throws IOException, ResourceGatewayException {
-        _wqAdapter.offerItem(pidSet, itemID, getHandle());
+        call(h -> _wqAdapter.offerItem(pidSet, itemID, h));
     }
 
 
     public void allocateItem(String itemID, String pid)
             throws IOException, ResourceGatewayException {
-        _wqAdapter.allocateItem(pid, itemID, getHandle());
+        call(h -> _wqAdapter.allocateItem(pid, itemID, h));
     }
 
 
     public void startItem(String itemID, String pid)
             throws IOException, ResourceGatewayException {
-        _wqAdapter.startItem(pid, itemID, getHandle());
+        call(h -> _wqAdapter.startItem(pid, itemID, h));
     }
 
 
     public void reofferItem(String itemID, Set<String> pidSet)
             throws IOException, ResourceGatewayException {
-        _wqAdapter.reofferItem(pidSet, itemID, getHandle());
+        call(h -> _wqAdapter.reofferItem(pidSet, itemID, h));
     }
 
 
     public void reallocateItem(String itemID, String pid)
             throws IOException, ResourceGatewayException {
-        _wqAdapter.reallocateItem(pid, itemID, getHandle());
+        call(h -> _wqAdapter.reallocateItem(pid, itemID, h));
     }
 
 
     public void restartItem(String itemID, String pid)
             throws IOException, ResourceGatewayException {
-        _wqAdapter.restartItem(pid, itemID, getHandle());
+        call(h -> _wqAdapter.restartItem(pid, itemID, h));
     }
 
 
     public void acceptItem(String itemID, String pid)
             throws IOException, ResourceGatewayException {
-        _wqAdapter.acceptOffer(pid, itemID, getHandle());
+        call(h -> _wqAdapter.acceptOffer(pid, itemID, h));
     }
 
 
     public void suspendItem(String itemID, String pid)
             throws IOException, ResourceGatewayException {
-        _wqAdapter.suspendItem(pid, itemID, getHandle());
+        call(h -> _wqAdapter.suspendItem(pid, itemID, h));
     }
 
 
     public void unsuspendItem(String itemID, String pid)
             throws IOException, ResourceGatewayException {
-        _wqAdapter.unsuspendItem(pid, itemID, getHandle());
+        call(h -> _wqAdapter.unsuspendItem(pid, itemID, h));
     }
 
 
     public void chainCase(String itemID, String pid)
             throws IOException, ResourceGatewayException {
-        _wqAdapter.chainCase(pid, itemID, getHandle());
+        call(h -> _wqAdapter.chainCase(pid, itemID, h));
     }
 
 
     public void skipItem(String itemID, String pid)
             throws IOException, ResourceGatewayException {
-        _wqAdapter.skipItem(pid, itemID, getHandle());
+        call(h -> _wqAdapter.skipItem(pid, itemID, h));
     }
 
 
     public void delegateItem(String itemID, String pidFrom, String pidTo)
             throws IOException, ResourceGatewayException {
-        _wqAdapter.delegateItem(pidFrom, pidTo, itemID, getHandle());
+        call(h -> _wqAdapter.delegateItem(pidFrom, pidTo, itemID, h));
     }
 
 
     public void deallocateItem(String itemID, String pid)
             throws IOException, ResourceGatewayException {
-        _wqAdapter.deallocateItem(pid, itemID, getHandle());
+        call(h -> _wqAdapter.deallocateItem(pid, itemID, h));
     }
 
 
     public void reallocateItem(String itemID, String pidFrom, String pidTo, boolean stateful)
             throws IOException, ResourceGatewayException {
-        _wqAdapter.reallocateItem(pidFrom, pidTo, itemID, stateful, getHandle());
+        call(h -> _wqAdapter.reallocateItem(pidFrom, pidTo, itemID, stateful, h));
     }
 
 
     public void pileItem(String itemID, String pid)
             throws IOException, ResourceGatewayException {
-        _wqAdapter.pileItem(pid, itemID, getHandle());
+        call(h -> _wqAdapter.pileItem(pid, itemID, h));
     }
 
 
@@ -191,13 +220,20 @@ public class ResourceClient extends AbstractClient {
 
     public void completeItem(WorkItemRecord wir, String data, String pid)
             throws IOException, ResourceGatewayException {
-        _wqAdapter.updateWorkItemData(wir.getID(), data, getHandle());
-        _wqAdapter.completeItem(pid, wir.getID(), getHandle());
+        call(h -> _wqAdapter.updateWorkItemData(wir.getID(), data, h));
+        completeItem(wir.getID(), pid);
+    }
+
+
+    // for an item whose data on the server is already current
+    public void completeItem(String itemID, String pid)
+            throws IOException, ResourceGatewayException {
+        call(h -> _wqAdapter.completeItem(pid, itemID, h));
     }
 
     public WorkItemRecord createNewInstance(String itemID, String paramValue)
             throws IOException, ResourceGatewayException {
-        String xml = _wqAdapter.createWorkItemInstance(itemID, paramValue, getHandle());
+        String xml = call(h -> _wqAdapter.createWorkItemInstance(itemID, paramValue, h));
         if (successful(xml)) {
         //    String wirXML = StringUtil.unwrap(xml);          // strip 'success' tags
             return Marshaller.unmarshalWorkItem(xml);
@@ -208,7 +244,7 @@ public class ResourceClient extends AbstractClient {
 
     public Set<ChainedCase> getChainedCases(String pid)
             throws IOException, ResourceGatewayException {
-        Set<String> cases = _wqAdapter.getChainedCases(pid, getHandle());
+        Set<String> cases = call(h -> _wqAdapter.getChainedCases(pid, h));
         List<SpecificationData> specs = getLoadedSpecificationData();
         Set<ChainedCase> chainedCases = new HashSet<>();
         for (String caseID : cases) {
@@ -229,7 +265,7 @@ public class ResourceClient extends AbstractClient {
 
     public Set<PiledTask> getPiledTasks(String pid)
             throws IOException, ResourceGatewayException {
-        String xml = _wqAdapter.getPiledItems(pid, getHandle());
+        String xml = call(h -> _wqAdapter.getPiledItems(pid, h));
         XNode node = new XNodeParser().parse(xml);
         if (node == null) {
             throw new ResourceGatewayException("Malformed XML returned from service");
@@ -242,36 +278,36 @@ public class ResourceClient extends AbstractClient {
 
     public String unchainCase(String caseID)
                 throws IOException, ResourceGatewayException {
-        return _wqAdapter.unchainCase(caseID, getHandle());
+        return call(h -> _wqAdapter.unchainCase(caseID, h));
     }
 
 
     public String unpileTask(PiledTask piledTask, String pid)
             throws IOException, ResourceGatewayException {
-        return _wqAdapter.unpileTask(piledTask.getSpecID(), piledTask.getTaskID(),
-                pid, getHandle());
+        return call(h -> _wqAdapter.unpileTask(piledTask.getSpecID(), piledTask.getTaskID(),
+                pid, h));
     }
 
 
     public String getCaseData(String caseID) throws IOException {
-        return _wqAdapter.getCaseData(caseID, getHandle());
+        return call(h -> _wqAdapter.getCaseData(caseID, h));
     }
 
     public String getWorkItemDataSchema(String itemID)
             throws IOException, ResourceGatewayException {
-        return _wqAdapter.getWorkItemDataSchema(itemID, getHandle());
+        return call(h -> _wqAdapter.getWorkItemDataSchema(itemID, h));
     }
 
 
     public String getCaseParamsDataSchema(YSpecificationID specID)
             throws IOException, ResourceGatewayException {
-        return _wqAdapter.getCaseDataSchema(specID, getHandle());
+        return call(h -> _wqAdapter.getCaseDataSchema(specID, h));
     }
 
 
     public String updateWorkItemData(String itemID, String data)
             throws IOException, ResourceGatewayException {
-        return updateWorkItemData(itemID, data, getHandle());
+        return call(h -> updateWorkItemData(itemID, data, h));
     }
 
     // this is for a user-level (custom form) request
@@ -281,22 +317,61 @@ public class ResourceClient extends AbstractClient {
     }
 
     public void updateWorkItemCache(WorkItemRecord wir) throws IOException {
-        _wqAdapter.updateWIRCache(wir, getHandle());
+        run(h -> _wqAdapter.updateWIRCache(wir, h));
     }
 
     // ensure resource service item cache matches engine items cache
     public boolean synchroniseItems() throws IOException {
-        return _wqAdapter.synchroniseCaches(getHandle());
+        return call(h -> _wqAdapter.synchroniseCaches(h));
     }
 
     
     public Set<Participant> getAssignedParticipants(String itemID, int queue)
             throws IOException, ResourceGatewayException {
-        return _wqAdapter.getParticipantsAssignedWorkItem(itemID, queue, getHandle());
+        return call(h -> _wqAdapter.getParticipantsAssignedWorkItem(itemID, queue, h));
+    }
+
+    /**
+     * Gets the participants assigned to each of a set of work items. The gateway has
+     * no batch form of this call, so the per-item calls are made concurrently.
+     * @param itemQueues a map of work item id to the queue type to check
+     * @return a map of work item id to its assigned participants. Items whose
+     * lookup failed or timed out are absent from the map
+     */
+    public Map<String, Set<Participant>> getAssignedParticipants(Map<String, Integer> itemQueues) {
+        ParallelFetch<String, Set<Participant>> fetch = new ParallelFetch<>();
+        return fetch.fetch(itemQueues.keySet(),
+                itemID -> getAssignedParticipants(itemID, itemQueues.get(itemID)))
+                .getValues();
     }
 
+    // read from the shared directory - see ParticipantDirectory
     public List<Participant> getParticipants() throws IOException, ResourceGatewayException {
-        return _resAdapter.getParticipants(getHandle());
+        return _participantDirectory.getAll();
+    }
+
+
+    public ParticipantDirectory getParticipantDirectory() { return _participantDirectory; }
+
+
+    // for calls that change participants, or their roles, capabilities or positions
+    private <T> T callAndInvalidate(HandleCall<T, IOException> call) throws IOException {
+        try {
+            return call(call);
+        }
+        finally {
+            _participantDirectory.invalidate();
+        }
+    }
+
+
+    List<Participant> loadParticipants() throws IOException, ResourceGatewayException {
+        return call(h -> _resAdapter.getParticipants(h));
+    }
+
+
+    public CompletableFuture<List<Participant>> getParticipantsAsync() {
+        return async(this::getParticipants);
     }
 
 
@@ -307,13 +382,13 @@ public class ResourceClient extends AbstractClient {
         if (userName.equals("admin")) {
             return null;
         }
-        return _resAdapter.getParticipantFromUserID(userName, getHandle());
+        return call(h -> _resAdapter.getParticipantFromUserID(userName, h));
     }
 
 
     public boolean isOrgDataModifiable() {
         try {
-            return _resAdapter.isOrgDataSetModifiable(getHandle());
+            return call(h -> _resAdapter.isOrgDataSetModifiable(h));
         }
         catch (IOException e) {
             e.printStackTrace();
@@ -323,7 +398,7 @@ public class ResourceClient extends AbstractClient {
 
     public boolean isUserAuthenticationExternal() {
         try {
-            return _resAdapter.isUserAuthenticationExternal(getHandle());
+            return call(h -> _resAdapter.isUserAuthenticationExternal(h));
         }
         catch (IOException e) {
             e.printStackTrace();
@@ -333,131 +408,131 @@ public class ResourceClient extends AbstractClient {
 
 
     public String addParticipant(Participant p) throws IOException {
-        return _resAdapter.addParticipant(p, true, getHandle());
+        return callAndInvalidate(h -> _resAdapter.addParticipant(p, true, h));
     }
 
     public String updateParticipant(Participant p) throws IOException {
-        return _resAdapter.updateParticipant(p, true, getHandle());
+        return callAndInvalidate(h -> _resAdapter.updateParticipant(p, true, h));
     }
 
     public String deleteParticipant(Participant p) throws IOException {
-        return _resAdapter.removeParticipant(p, getHandle());
+        return callAndInvalidate(h -> _resAdapter.removeParticipant(p, h));
     }
 
     public List<AbstractResourceAttribute> getRoles()
             throws IOException, ResourceGatewayException {
-        return _resAdapter.getRoles(getHandle());
+        return call(h -> _resAdapter.getRoles(h));
     }
 
     public String addParticipantToRole(String p, String r) throws IOException {
-        return _resAdapter.getClient().addParticipantToRole(p, r, getHandle());
+        return callAndInvalidate(h -> _resAdapter.getClient().addParticipantToRole(p, r, h));
     }
 
     public String addParticipantToCapability(String p, String c) throws IOException {
-        return _resAdapter.getClient().addParticipantToCapability(p, c, getHandle());
+        return callAndInvalidate(h -> _resAdapter.getClient().addParticipantToCapability(p, c, h));
     }
 
     public String addParticipantToPosition(String p, String pos) throws IOException {
-        return _resAdapter.getClient().addParticipantToPosition(p, pos, getHandle());
+        return callAndInvalidate(h -> _resAdapter.getClient().addParticipantToPosition(p, pos, h));
     }
 
     public String removeParticipantFromRole(String p, String r) throws IOException {
-        return _resAdapter.getClient().removeParticipantFromRole(p, r, getHandle());
+        return callAndInvalidate(h -> _resAdapter.getClient().removeParticipantFromRole(p, r, h));
     }
 
     public String removeParticipantFromCapability(String p, String c) throws IOException {
-        return _resAdapter.getClient().removeParticipantFromCapability(p, c, getHandle());
+        return callAndInvalidate(h -> _resAdapter.getClient().removeParticipantFromCapability(p, c, h));
     }
 
     public String removeParticipantFromPosition(String p, String pos) throws IOException {
-        return _resAdapter.getClient().removeParticipantFromPosition(p, pos, getHandle());
+        return callAndInvalidate(h -> _resAdapter.getClient().removeParticipantFromPosition(p, pos, h));
     }
 
     public List<AbstractResourceAttribute> getCapabilities()
             throws IOException, ResourceGatewayException {
-        return _resAdapter.getCapabilities(getHandle());
+        return call(h -> _resAdapter.getCapabilities(h));
     }
 
     public List<AbstractResourceAttribute> getPositions()
             throws IOException, ResourceGatewayException {
-        return _resAdapter.getPositions(getHandle());
+        return call(h -> _resAdapter.getPositions(h));
     }
 
     public List<AbstractResourceAttribute> getOrgGroups()
             throws IOException, ResourceGatewayException {
-        return _resAdapter.getOrgGroups(getHandle());
+        return call(h -> _resAdapter.getOrgGroups(h));
     }
 
     public Role getRole(String rid) throws IOException, ResourceGatewayException {
-        return _resAdapter.getRole(rid, getHandle());
+        return call(h -> _resAdapter.getRole(rid, h));
     }
 
     public Position getPosition(String pid) throws IOException, ResourceGatewayException {
-        return _resAdapter.getPosition(pid, getHandle());
+        return call(h -> _resAdapter.getPosition(pid, h));
     }
 
     public OrgGroup getOrgGroup(String oid) throws IOException, ResourceGatewayException {
-        return _resAdapter.getOrgGroup(oid, getHandle());
+        return call(h -> _resAdapter.getOrgGroup(oid, h));
     }
 
 
     public List<AbstractResourceAttribute> getParticipantRoles(String pid)
             throws IOException, ResourceGatewayException {
-        return _resAdapter.getParticipantRoles(pid, getHandle());
+        return call(h -> _resAdapter.getParticipantRoles(pid, h));
     }
 
     public List<AbstractResourceAttribute> getParticipantCapabilities(String pid)
             throws IOException, ResourceGatewayException {
-        return _resAdapter.getParticipantCapabilities(pid, getHandle());
+        return call(h -> _resAdapter.getParticipantCapabilities(pid, h));
     }
 
     public List<AbstractResourceAttribute> getParticipantPositions(String pid)
             throws IOException, ResourceGatewayException {
-        return _resAdapter.getParticipantPositions(pid, getHandle());
+        return call(h -> _resAdapter.getParticipantPositions(pid, h));
     }
 
     public List<Participant> getRoleMembers(String name)
             throws IOException, ResourceGatewayException {
-        Set<Participant> pSet = _resAdapter.getParticipantsWithRole(name, getHandle());
+        Set<Participant> pSet = call(h -> _resAdapter.getParticipantsWithRole(name, h));
         return pSet != null ? new ArrayList<>(pSet) : Collections.emptyList();
     }
 
     public List<Participant> getCapabilityMembers(String name)
             throws IOException, ResourceGatewayException {
-        Set<Participant> pSet = _resAdapter.getParticipantsWithCapability(name, getHandle());
+        Set<Participant> pSet = call(h -> _resAdapter.getParticipantsWithCapability(name, h));
         return pSet != null ? new ArrayList<>(pSet) : Collections.emptyList();
     }
 
     public List<Participant> getPositionMembers(String name)
             throws IOException, ResourceGatewayException {
-        Set<Participant> pSet = _resAdapter.getParticipantsWithPosition(name, getHandle());
+        Set<Participant> pSet = call(h -> _resAdapter.getParticipantsWithPosition(name, h));
         return pSet != null ? new ArrayList<>(pSet) : Collections.emptyList();
     }
     
     public Set<Participant> getReportingTo(String pid)
             throws IOException, ResourceGatewayException {
-        return _wqAdapter.getReportingToParticipant(pid, getHandle());
+        return call(h -> _wqAdapter.getReportingToParticipant(pid, h));
     }
 
 
     public List<Participant> getOrgGroupMembers(String oid)
             throws IOException, ResourceGatewayException {
-        Set<Participant> pSet = _wqAdapter.getOrgGroupMembers(oid, getHandle());
+        Set<Participant> pSet = call(h -> _wqAdapter.getOrgGroupMembers(oid, h));
         return pSet != null ? new ArrayList<>(pSet) : Collections.emptyList();
     }
 
     public UserPrivileges getUserPrivileges(String pid)
             throws IOException, ResourceGatewayException {
-        return _wqAdapter.getUserPrivileges(pid, getHandle());
+        return call(h -> _wqAdapter.getUserPrivileges(pid, h));
     }
 
     public String setUserPrivileges(Participant p) throws IOException {
-        return _resAdapter.setParticipantPrivileges(p, getHandle());
+        return callAndInvalidate(h -> _resAdapter.setParticipantPrivileges(p, h));
     }
 
 
     public Role addRole(Role role) throws IOException {
-        String id = _resAdapter.addRole(role, getHandle());
+        String id = call(h -> _resAdapter.addRole(role, h));
         if (successful(id)) {
             role.setID(id);
             return role;
@@ -466,7 +541,7 @@ public class ResourceClient extends AbstractClient {
     }
 
     public Capability addCapability(Capability capability) throws IOException {
-        String id = _resAdapter.addCapability(capability, getHandle());
+        String id = call(h -> _resAdapter.addCapability(capability, h));
         if (successful(id)) {
             capability.setID(id);
             return capability;
@@ -475,7 +550,7 @@ public class ResourceClient extends AbstractClient {
     }
 
     public Position addPosition(Position position) throws IOException {
-        String id = _resAdapter.addPosition(position, getHandle());
+        String id = call(h -> _resAdapter.addPosition(position, h));
         if (successful(id)) {
             position.setID(id);
             return position;
@@ -484,7 +559,7 @@ public class ResourceClient extends AbstractClient {
     }
 
     public OrgGroup addOrgGroup(OrgGroup orgGroup) throws IOException {
-        String id = _resAdapter.addOrgGroup(orgGroup, getHandle());
+        String id = call(h -> _resAdapter.addOrgGroup(orgGroup, h));
         if (successful(id)) {
             orgGroup.setID(id);
             return orgGroup;
@@ -493,93 +568,87 @@ public class ResourceClient extends AbstractClient {
     }
 
     public String updateRole(Role role) throws IOException {
-        return _resAdapter.updateRole(role, getHandle());
+        return call(h -> _resAdapter.updateRole(role, h));
     }
 
     public String updateCapability(Capability capability) throws IOException {
-        return _resAdapter.updateCapability(capability, getHandle());
+        return call(h -> _resAdapter.updateCapability(capability, h));
     }
 
     public String updatePosition(Position position) throws IOException {
-        return _resAdapter.updatePosition(position, getHandle());
+        return call(h -> _resAdapter.updatePosition(position, h));
     }
 
     public String updateOrgGroup(OrgGroup orgGroup) throws IOException {
-        return _resAdapter.updateOrgGroup(orgGroup, getHandle());
+        return call(h -> _resAdapter.updateOrgGroup(orgGroup, h));
     }
 
     public String removeRole(Role role) throws IOException {
-        return _resAdapter.removeRole(role, getHandle());
+        return call(h -> _resAdapter.removeRole(role, h));
     }
 
     public String removeCapability(Capability capability) throws IOException {
-        return _resAdapter.removeCapability(capability, getHandle());
+        return call(h -> _resAdapter.removeCapability(capability, h));
     }
 
     public String removePosition(Position position) throws IOException {
-        return _resAdapter.removePosition(position, getHandle());
+        return call(h -> _resAdapter.removePosition(position, h));
     }
 
     public String removeOrgGroup(OrgGroup orgGroup) throws IOException {
-        return _resAdapter.removeOrgGroup(orgGroup, getHandle());
+        return call(h -> _resAdapter.removeOrgGroup(orgGroup, h));
     }
 
 
     public TaskPrivileges getTaskPrivileges(WorkItemRecord wir)
             throws IOException, ResourceGatewayException {
-        TaskPrivileges privileges = _taskPrivilegesCache.get(wir);
-        if (privileges == null) {
-            privileges = _wqAdapter.getTaskPrivileges(wir.getID(), getHandle());
-            if (privileges != null) {
-                _taskPrivilegesCache.put(wir, privileges);
-            }
-        }
-        return privileges;
+        return _taskPrivilegesCache.get(wir,
+                () -> call(h -> _wqAdapter.getTaskPrivileges(wir.getID(), h)));
     }
 
 
     public List<YAWLServiceReference> getRegisteredServices() throws IOException {
-        Set<YAWLServiceReference> services = _wqAdapter.getRegisteredServices(getHandle());
+        Set<YAWLServiceReference> services = call(h -> _wqAdapter.getRegisteredServices(h));
         return services != null ? new ArrayList<>(services) : Collections.emptyList();
     }
 
 
     public void addClient(YClient client) throws IOException {
         if (client instanceof YAWLServiceReference) {
-            _wqAdapter.addRegisteredService((YAWLServiceReference) client, getHandle());
+            call(h -> _wqAdapter.addRegisteredService((YAWLServiceReference) client, h));
             announceEvent(ClientEvent.Action.ServiceAdd, client);
         }
         else if (client instanceof YExternalClient) {
-            _wqAdapter.addExternalClient((YExternalClient) client, getHandle());
+            call(h -> _wqAdapter.addExternalClient((YExternalClient) client, h));
         }
     }
 
 
     public void removeClient(YClient client) throws IOException {
         if (client instanceof YAWLServiceReference) {
-            _wqAdapter.removeRegisteredService(
-                    ((YAWLServiceReference) client).getServiceID(), getHandle());
+            call(h -> _wqAdapter.removeRegisteredService(
+                    ((YAWLServiceReference) client).getServiceID(), h));
             announceEvent(ClientEvent.Action.ServiceRemove, client);
         }
         else if (client instanceof YExternalClient) {
-            _wqAdapter.removeExternalClient(client.getUserName(), getHandle());
+            call(h -> _wqAdapter.removeExternalClient(client.getUserName(), h));
         }
     }
 
 
     public Set<Participant> getSubordinateParticpants(String pid)
             throws IOException, ResourceGatewayException {
-        return _wqAdapter.getReportingToParticipant(pid, getHandle());
+        return call(h -> _wqAdapter.getReportingToParticipant(pid, h));
     }
 
 
     public List<NonHumanResource> getNonHumanResources()
             throws IOException, ResourceGatewayException {
-        return _resAdapter.getNonHumanResources(getHandle());
+        return call(h -> _resAdapter.getNonHumanResources(h));
     }
 
     public NonHumanResource addNonHumanResource(NonHumanResource resource) throws IOException {
-        String id = _resAdapter.addNonHumanResource(resource, getHandle());
+        String id = call(h -> _resAdapter.addNonHumanResource(resource, h));
         if (successful(id)) {
             resource.setID(id);
             return resource;
@@ -588,14 +657,14 @@ public class ResourceClient extends AbstractClient {
     }
 
     public void updateNonHumanResource(NonHumanResource resource) throws IOException {
-        String msg = _resAdapter.updateNonHumanResource(resource, getHandle());
+        String msg = call(h -> _resAdapter.updateNonHumanResource(resource, h));
         if (! successful(msg)) {
             throw new IOException(StringUtil.unwrap(msg));
         }
     }
 
     public void removeNonHumanResource(NonHumanResource resource) throws IOException {
-        String msg = _resAdapter.removeNonHumanResource(resource, getHandle());
+        String msg = call(h -> _resAdapter.removeNonHumanResource(resource, h));
         if (! successful(msg)) {
             throw new IOException(StringUtil.unwrap(msg));
         }
@@ -604,19 +673,19 @@ public class ResourceClient extends AbstractClient {
 
     public List<NonHumanCategory> getNonHumanCategories()
             throws IOException, ResourceGatewayException {
-        return _resAdapter.getNonHumanCategories(getHandle());
+        return call(h -> _resAdapter.getNonHumanCategories(h));
     }
 
 
     public List<String> getNonHumanSubCategories(String catID)
             throws IOException, ResourceGatewayException {
-        return _resAdapter.getNonHumanSubCategories(catID, getHandle());
+        return call(h -> _resAdapter.getNonHumanSubCategories(catID, h));
     }
 
 
     public List<NonHumanResource> getNonHumanCategoryMembers(String catID, String subCategory)
             throws IOException, ResourceGatewayException {
-        return _resAdapter.getNonHumanCategoryMembers(catID, subCategory, getHandle());
+        return call(h -> _resAdapter.getNonHumanCategoryMembers(catID, subCategory, h));
     }
 
 
@@ -624,7 +693,7 @@ public class ResourceClient extends AbstractClient {
             throws IOException, ResourceGatewayException {
 
         // create it
-        String id = _resAdapter.addNonHumanCategory(category.getName(), getHandle());
+        String id = call(h -> _resAdapter.addNonHumanCategory(category.getName(), h));
         category.setID(id);
 
         // add content
@@ -639,7 +708,7 @@ public class ResourceClient extends AbstractClient {
 
     public void updateNonHumanCategory(NonHumanCategory category)
             throws IOException, ResourceGatewayException {
-        String msg = _resAdapter.updateNonHumanCategory(category, getHandle());
+        String msg = call(h -> _resAdapter.updateNonHumanCategory(category, h));
         if (! successful(msg)) {
             throw new IOException(StringUtil.unwrap(msg));
         }
@@ -648,19 +717,19 @@ public class ResourceClient extends AbstractClient {
 
     public boolean removeNonHumanCategory(NonHumanCategory category)
             throws IOException, ResourceGatewayException {
-        return _resAdapter.removeNonHumanCategory(category.getID(), getHandle());
+        return call(h -> _resAdapter.removeNonHumanCategory(category.getID(), h));
     }
 
 
     public void addNonHumanSubCategory(String catID, String subName)
             throws IOException, ResourceGatewayException {
-        _resAdapter.addNonHumanSubCategory(catID, subName, getHandle());
+        call(h -> _resAdapter.addNonHumanSubCategory(catID, subName, h));
     }
 
 
     public void removeNonHumanSubCategory(String catID, String subName)
             throws IOException, ResourceGatewayException {
-        _resAdapter.removeNonHumanSubCategory(catID, subName, getHandle());
+        call(h -> _resAdapter.removeNonHumanSubCategory(catID, subName, h));
     }
 
 
@@ -668,12 +737,11 @@ public class ResourceClient extends AbstractClient {
             throws IOException, ResourceGatewayException, NoSuchAlgorithmException {
 
         // don't encrypt password if authentication is handled by an external org data source
-        if (userName.equals("admin") || ! isUserAuthenticationExternal()) {
-            password = PasswordEncryptor.encrypt(password);
-        }
-        
-        String result = _resAdapter.validateUserCredentials(userName, password,
-                false, getHandle());
+        String credential = userName.equals("admin") || ! isUserAuthenticationExternal() ?
+                PasswordEncryptor.encrypt(password) : password;
+
+        String result = call(h -> _resAdapter.validateUserCredentials(userName, credential,
+                false, h));
         return _resAdapter.successful(result);
     }
 
@@ -686,7 +754,7 @@ public class ResourceClient extends AbstractClient {
 
     public List<SpecificationData> getLoadedSpecificationData() throws IOException {
         List<SpecificationData> specList = new ArrayList<>();
-        Set<SpecificationData> specData = _wqAdapter.getSpecList(_handle);
+        Set<SpecificationData> specData = call(h -> _wqAdapter.getSpecList(h));
         if (specData != null) {
             specList.addAll(specData);
         }
@@ -695,28 +763,40 @@ public class ResourceClient extends AbstractClient {
 
 
     public String getMergedXESLog(YSpecificationID specID, boolean withData) throws IOException {
-        return _logClient.getMergedXESLog(specID.getIdentifier(),
-                specID.getVersionAsString(), specID.getUri(), withData, getHandle());
+        return call(h -> _logClient.getMergedXESLog(specID.getIdentifier(),
+                specID.getVersionAsString(), specID.getUri(), withData, h));
+    }
+
+
+    public CompletableFuture<String> getMergedXESLogAsync(YSpecificationID specID,
+                                                         boolean withData) {
+        return async(() -> getMergedXESLog(specID, withData));
+    }
+
+
+    public CompletableFuture<String> getMergedXESLogAsync(YSpecificationID specID,
+                                                         boolean withData, Duration timeout) {
+        return async(() -> getMergedXESLog(specID, withData), timeout);
     }
 
 
     public String importOrgData(String xml) throws IOException {
-        return _resAdapter.importOrgData(xml, getHandle());
+        return call(h -> _resAdapter.importOrgData(xml, h));
     }
 
     public String exportOrgData() throws IOException {
-        return _resAdapter.exportOrgData(getHandle());
+        return call(h -> _resAdapter.exportOrgData(h));
     }
 
 
     public XNode getSecondaryResources(String itemID) throws IOException, ResourceGatewayException {
-        String xml = _resAdapter.getSecondaryResources(itemID, getHandle());
+        String xml = call(h -> _resAdapter.getSecondaryResources(itemID, h));
         return new XNodeParser().parse(xml);
     }
 
     public List<String> setSecondaryResources(String itemID, XNode resources)
             throws IOException, ResourceGatewayException {
-        return _resAdapter.setSecondaryResources(itemID, resources.toString(), getHandle());
+        return call(h -> _resAdapter.setSecondaryResources(itemID, resources.toString(), h));
     }
 
 
@@ -724,7 +804,7 @@ public class ResourceClient extends AbstractClient {
     public Map<String, String> getBuildProperties() throws IOException {
         String props = null;
         try {
-            props = _resAdapter.getBuildProperties(getHandle());
+            props = call(h -> _resAdapter.getBuildProperties(h));
         }
         catch (ResourceGatewayException e) {
             throw new IOException(e);
@@ -739,7 +819,7 @@ public class ResourceClient extends AbstractClient {
 
     public List<CalendarEntry> getCalendarEntries(ResourceCalendar.ResourceGroup group,
                                                   long from, long to) throws IOException {
-        String xml = _calClient.getEntries(group, from, to, true, getHandle());
+        String xml = call(h -> _calClient.getEntries(group, from, to, true, h));
         if (! successful(xml)) {
             throw new IOException(StringUtil.unwrap(xml));
         }
@@ -748,7 +828,7 @@ public class ResourceClient extends AbstractClient {
 
     public List<CalendarEntry> getCalendarEntries(String resourceID,
                                                   long from, long to) throws IOException {
-        String xml = _calClient.getEntries(resourceID, from, to, true, getHandle());
+        String xml = call(h -> _calClient.getEntries(resourceID, from, to, true, h));
         if (! successful(xml)) {
             throw new IOException(StringUtil.unwrap(xml));
         }
@@ -756,7 +836,7 @@ public class ResourceClient extends AbstractClient {
     }
 
     public CalendarEntry addCalendarEntry(CalendarEntry entry) throws IOException {
-        String xml = _calClient.addEntry(entry, getHandle());
+        String xml = call(h -> _calClient.addEntry(entry, h));
         if (! successful(xml)) {
             throw new IOException(StringUtil.unwrap(xml));
         }
@@ -765,7 +845,7 @@ public class ResourceClient extends AbstractClient {
     }
 
     public boolean updateCalendarEntry(CalendarEntry entry) throws IOException {
-        String xml = _calClient.updateEntry(entry, getHandle());
+        String xml = call(h -> _calClient.updateEntry(entry, h));
         if (! successful(xml)) {
             throw new IOException(StringUtil.unwrap(xml));
         }
@@ -773,7 +853,7 @@ public class ResourceClient extends AbstractClient {
     }
 
     public boolean deleteCalendarEntry(long entryID) throws IOException {
-        String xml = _calClient.deleteEntry(entryID, getHandle());
+        String xml = call(h -> _calClient.deleteEntry(entryID, h));
         if (! successful(xml)) {
             throw new IOException(StringUtil.unwrap(xml));
         }
@@ -820,40 +900,39 @@ public class ResourceClient extends AbstractClient {
 
     @Override
     public void disconnect() throws IOException {
-        connect();
-        _resAdapter.disconnect(_handle);
+        releaseHandle(h -> _resAdapter.disconnect(h));
     }
 
 
     // log queries v
 
     public String getLogEventsForCase(String caseID) throws IOException {
-        String xml = _logClient.getCaseEvents(caseID, getHandle());
+        String xml = call(h -> _logClient.getCaseEvents(caseID, h));
         successCheck(xml);
         return xml;
     }
 
 
     public List<ResourceEvent> getParticipantHistory(String pid) throws IOException {
-        String xml = _logClient.getParticipantHistory(pid, getHandle());
+        String xml = call(h -> _logClient.getParticipantHistory(pid, h));
         return xmlToResourceEventList(xml);
     }
 
 
     public List<ResourceEvent> getCaseHistoryInvolvingParticipant(String pid) throws IOException {
-        String xml = _logClient.getCaseHistoryInvolvingParticipant(pid, getHandle());
+        String xml = call(h -> _logClient.getCaseHistoryInvolvingParticipant(pid, h));
         return xmlToResourceEventList(xml);
     }
 
 
     public List<ResourceEvent> getTaskStatistics(YSpecificationID specID, String taskName) throws IOException {
-        String xml = _logClient.getTaskStatistics(specID, taskName, getHandle());
+        String xml = call(h -> _logClient.getTaskStatistics(specID, taskName, h));
         return xmlToResourceEventList(xml);
     }
 
 
     public List<ResourceEvent> getCaseEvents(String caseID) throws IOException {
-        String xml = _logClient.getCaseEvents(caseID, getHandle());
+        String xml = call(h -> _logClient.getCaseEvents(caseID, h));
         return xmlToResourceEventList(xml);
     }
 
@@ -894,6 +973,12 @@ public class ResourceClient extends AbstractClient {
     }
 
 
+    public WorkItemRecord getWorkItemRecord(String itemID, String handle)
+            throws ResourceGatewayException, IOException {
+        return Marshaller.unmarshalWorkItem(getWorkItem(itemID, handle));
+    }
+
+
 
     public String getWorkItemParameters(String itemID, String handle)
             throws ResourceGatewayException, IOException {
@@ -29,7 +29,7 @@ public class WorkletClient extends AbstractClient {
 
     
     public List<WorkletRunner> getRunningWorklets() throws IOException {
-        String xml = _wsClient.getRunningWorklets(getHandle());
+        String xml = call(h -> _wsClient.getRunningWorklets(h));
         if (successful(xml)) {
             XNode node = new XNodeParser().parse(xml);
             if (node != null) {
@@ -44,13 +44,13 @@ public class WorkletClient extends AbstractClient {
 
 
     public AdministrationTask getWorkletAdministrationTask(int id) throws IOException {
-        String xml = _wsClient.getAdministrationTask(id, getHandle());
+        String xml = call(h -> _wsClient.getAdministrationTask(id, h));
         return newAdministrationTask(xml);
     }
 
 
     public List<AdministrationTask> getWorkletAdministrationTasks() throws IOException {
-        String xml = _wsClient.getAdministrationTasks(getHandle());
+        String xml = call(h -> _wsClient.getAdministrationTasks(h));
         if (successful(xml)) {
             XNode node = new XNodeParser().parse(xml);
             if (node != null) {
@@ -70,16 +70,16 @@ public class WorkletClient extends AbstractClient {
 
     public AdministrationTask addWorkletAdministrationTask(AdministrationTask task)
             throws IOException {
-        String xml = _wsClient.addAdministrationTask(task.getCaseID(), task.getItemID(),
+        String xml = call(h -> _wsClient.addAdministrationTask(task.getCaseID(), task.getItemID(),
                 task.getTitle(), task.getScenario(), task.getProcess(), task.getTaskType(),
-                getHandle());
+                h));
         return newAdministrationTask(xml);
     }
 
 
     public void removeWorkletAdministrationTask(int id)
             throws IOException {
-        String xml = _wsClient.removeAdministrationTask(id, getHandle());
+        String xml = call(h -> _wsClient.removeAdministrationTask(id, h));
         if (! successful(xml)) {
             throw new IOException(StringUtil.unwrap(xml));
         }
@@ -87,7 +87,7 @@ public class WorkletClient extends AbstractClient {
 
 
     public void raiseCaseExternalException(String caseID, String trigger) throws IOException {
-        String xml = _wsClient.raiseCaseExternalException(caseID, trigger, getHandle());
+        String xml = call(h -> _wsClient.raiseCaseExternalException(caseID, trigger, h));
         if (! successful(xml)) {
             throw new IOException(StringUtil.unwrap(xml));
         }
@@ -95,7 +95,7 @@ public class WorkletClient extends AbstractClient {
 
 
     public void raiseItemExternalException(String itemID, String trigger) throws IOException {
-        String xml = _wsClient.raiseItemExternalException(itemID, trigger, getHandle());
+        String xml = call(h -> _wsClient.raiseItemExternalException(itemID, trigger, h));
         if (! successful(xml)) {
             throw new IOException(StringUtil.unwrap(xml));
         }
@@ -103,7 +103,7 @@ public class WorkletClient extends AbstractClient {
 
 
     public List<String> getExternalTriggersForCase(String caseID) throws IOException {
-        String xml = _wsClient.getExternalTriggersForCase(caseID, getHandle());
+        String xml = call(h -> _wsClient.getExternalTriggersForCase(caseID, h));
         if (! successful(xml)) {
             throw new IOException(StringUtil.unwrap(xml));
         }
@@ -112,7 +112,7 @@ public class WorkletClient extends AbstractClient {
 
     
     public List<String> getExternalTriggersForItem(String itemID) throws IOException {
-        String xml = _wsClient.getExternalTriggersForItem(itemID, getHandle());
+        String xml = call(h -> _wsClient.getExternalTriggersForItem(itemID, h));
         if (! successful(xml)) {
             throw new IOException(StringUtil.unwrap(xml));
         }
@@ -121,7 +121,7 @@ public class WorkletClient extends AbstractClient {
     
 
     public Map<String, String> getBuildProperties() throws IOException {
-        String props = _wsClient.getBuildProperties(getHandle());
+        String props = call(h -> _wsClient.getBuildProperties(h));
         if (successful(props)) {
             return buildPropertiesToMap(props);
         }
@@ -185,8 +185,7 @@ public class WorkletClient extends AbstractClient {
 
     @Override
     public void disconnect() throws IOException {
-        connect();
-        _wsClient.disconnect(_handle);
+        releaseHandle(h -> _wsClient.disconnect(h));
     }
 
 
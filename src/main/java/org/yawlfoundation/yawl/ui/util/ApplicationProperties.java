@@ -118,6 +118,96 @@ public class ApplicationProperties {
     }
 
 
+    // the number of seconds a service session handle is trusted before it is rechecked
+    public static int getClientHandleLeaseSeconds() {
+        return StringUtil.strToInt(get("client.handle.lease.secs"), 300);
+    }
+
+
+    // the number of clients (and so session handles) kept for each service
+    public static int getClientPoolSize() {
+        return StringUtil.strToInt(get("client.pool.size"), 4);
+    }
+
+
+    // the default number of seconds to wait for an asynchronous service call
+    public static int getClientAsyncTimeoutSeconds() {
+        return StringUtil.strToInt(get("client.async.timeout.secs"), 60);
+    }
+
+
+    // the maximum number of concurrent calls when gathering data for a set of items
+    public static int getParallelFetchLimit() {
+        return StringUtil.strToInt(get("parallel.fetch.limit"), 8);
+    }
+
+
+    // the number of seconds to wait for all the calls for a set of items to complete
+    public static int getParallelFetchTimeoutSeconds() {
+        return StringUtil.strToInt(get("parallel.fetch.timeout.secs"), 30);
+    }
+
+
+    // the number of seconds the list of registered services is reused before a refetch
+    public static int getInstalledServicesTTLSeconds() {
+        return StringUtil.strToInt(get("installed.services.ttl.secs"), 60);
+    }
+
+
+    // the maximum number of task privileges cached for all sessions
+    public static int getTaskPrivilegesCacheSize() {
+        return StringUtil.strToInt(get("task.privileges.cache.size"), 2000);
+    }
+
+
+    // the number of seconds a cached task privileges entry is used for (0 = no limit)
+    public static int getTaskPrivilegesCacheTTLSeconds() {
+        return StringUtil.strToInt(get("task.privileges.cache.ttl.secs"), 0);
+    }
+
+
+    // the number of parsed form schemas kept for reuse
+    public static int getDynFormSchemaCacheSize() {
+        return StringUtil.strToInt(get("dyn.form.schema.cache.size"), 200);
+    }
+
+
+    // the number of seconds the shared participant list is used before a refetch
+    public static int getParticipantDirectoryTTLSeconds() {
+        return StringUtil.strToInt(get("participant.directory.ttl.secs"), 300);
+    }
+
+
+    // the number of seconds between polls for changes to open worklists (0 = no polling)
+    public static int getWorklistPollSeconds() {
+        return StringUtil.strToInt(get("worklist.poll.secs"), 20);
+    }
+
+
+    // the minimum number of seconds between worklist updates pushed to a page
+    public static int getWorklistMinPushIntervalSeconds() {
+        return StringUtil.strToInt(get("worklist.push.min.interval.secs"), 10);
+    }
+
+
+    // the maximum number of specification version logs fetched at once
+    public static int getXesLogFetchLimit() {
+        return StringUtil.strToInt(get("xes.log.fetch.limit"), 4);
+    }
+
+
+    // the number of seconds to wait for all the version logs of a specification
+    public static int getXesLogFetchTimeoutSeconds() {
+        return StringUtil.strToInt(get("xes.log.fetch.timeout.secs"), 300);
+    }
+
+
+    // the number of seconds a custom form's session handle is trusted once validated
+    public static int getCustomFormSessionCacheSeconds() {
+        return StringUtil.strToInt(get("custom.form.session.cache.secs"), 30);
+    }
+
+
     private static String getBaseHost() {
         String host = get("base.host");
         return host.isEmpty() ? "localhost" : host;
@@ -1,29 +1,45 @@
 package org.yawlfoundation.yawl.ui.util;
 
 import org.yawlfoundation.yawl.elements.YAWLServiceReference;
+import org.yawlfoundation.yawl.ui.service.ClientEvent;
+import org.yawlfoundation.yawl.ui.service.ClientEventListener;
 import org.yawlfoundation.yawl.ui.service.Clients;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * A shared, in-memory list of the services registered with the resource service.
+ * The list is refetched once its time-to-live has passed, and is updated directly
+ * when a service is added or removed through this UI.
+ *
  * @author Michael Adams
  * @date 29/11/2022
  */
-public class InstalledServices {
+public class InstalledServices implements ClientEventListener {
 
-    private final List<YAWLServiceReference> _services;
+    private static final InstalledServices INSTANCE = new InstalledServices();
 
+    private final long _ttlMsecs;
+    private volatile List<YAWLServiceReference> _services;
+    private volatile long _expiry;
 
-    public InstalledServices() {
-        _services = getServices();
+
+    private InstalledServices() {
+        _ttlMsecs = TimeUnit.SECONDS.toMillis(
+                ApplicationProperties.getInstalledServicesTTLSeconds());
     }
 
 
+    public static InstalledServices getInstance() { return INSTANCE; }
+
+
     public boolean hasWorkletService() {
-        for (YAWLServiceReference service : _services) {
-            if (service.getURI().contains("workletService")) {
+        for (YAWLServiceReference service : getServices()) {
+            if (isWorkletService(service)) {
                 return true;
             }
         }
@@ -31,13 +47,59 @@ public class InstalledServices {
     }
 
 
-    private List<YAWLServiceReference> getServices() {
+    public List<YAWLServiceReference> getServices() {
+        List<YAWLServiceReference> services = _services;
+        if (services == null || System.currentTimeMillis() >= _expiry) {
+            services = refresh();
+        }
+        return services;
+    }
+
+
+    public static boolean isWorkletService(YAWLServiceReference service) {
+        return service.getURI() != null && service.getURI().contains("workletService");
+    }
+
+
+    @Override
+    public void onClientEvent(ClientEvent event) {
+        if (! (event.getObject() instanceof YAWLServiceReference)) return;
+        YAWLServiceReference service = (YAWLServiceReference) event.getObject();
+        switch (event.getAction()) {
+            case ServiceAdd : update(service, true); break;
+            case ServiceRemove : update(service, false); break;
+        }
+    }
+
+
+    // if the fetch fails, the previous list (if any) is kept until the ttl passes again
+    private synchronized List<YAWLServiceReference> refresh() {
+        if (_services != null && System.currentTimeMillis() < _expiry) {
+            return _services;                          // refreshed while this thread waited
+        }
         try {
-            return Clients.getResourceClient().getRegisteredServices();
+            _services = Collections.unmodifiableList(
+                    Clients.getResourceClient().getRegisteredServices());
         }
         catch (IOException e) {
-            return Collections.emptyList();
+            if (_services == null) {
+                _services = Collections.emptyList();
+            }
+        }
+        _expiry = System.currentTimeMillis() + _ttlMsecs;
+        return _services;
+    }
+
+
+    // applies an add or remove to the list in place of a refetch
+    private synchronized void update(YAWLServiceReference service, boolean add) {
+        if (_services == null) return;                 // nothing fetched yet
+        List<YAWLServiceReference> services = new ArrayList<>(_services);
+        services.removeIf(s -> s.getServiceID().equals(service.getServiceID()));
+        if (add) {
+            services.add(service);
         }
+        _services = Collections.unmodifiableList(services);
     }
 
 }
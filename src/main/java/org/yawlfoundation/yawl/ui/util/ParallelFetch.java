@@ -0,0 +1,106 @@
+package org.yawlfoundation.yawl.ui.util;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Makes a set of independent service calls concurrently, with a limit on how many
+ * run at once and an overall deadline. Calls that fail or are still running at the
+ * deadline are reported as failures, rather than failing the whole set.
+ *
+ * @author Michael Adams
+ * @date 18/10/2026
+ */
+public class ParallelFetch<K, V> {
+
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final int _maxParallel;
+    private final Duration _deadline;
+
+
+    public ParallelFetch() {
+        this(ApplicationProperties.getParallelFetchLimit(),
+                Duration.ofSeconds(ApplicationProperties.getParallelFetchTimeoutSeconds()));
+    }
+
+
+    public ParallelFetch(int maxParallel, Duration deadline) {
+        _maxParallel = Math.max(1, maxParallel);
+        _deadline = deadline;
+    }
+
+
+    /**
+     * Calls the fetcher once for each key and waits, up to the deadline, for them
+     * all to complete.
+     * @param keys the keys to fetch values for
+     * @param fetcher makes the call for a single key
+     * @return the fetched values and the failures, each in key order
+     */
+    public Result<K, V> fetch(Collection<K> keys, Fetcher<K, V> fetcher) {
+        Semaphore permits = new Semaphore(_maxParallel);
+        Map<K, Future<V>> futures = new LinkedHashMap<>();
+        for (K key : keys) {
+            futures.put(key, EXECUTOR.submit(() -> {
+                permits.acquire();
+                try {
+                    return fetcher.fetch(key);
+                }
+                finally {
+                    permits.release();
+                }
+            }));
+        }
+
+        Result<K, V> result = new Result<>();
+        long deadline = System.nanoTime() + _deadline.toNanos();
+        for (Map.Entry<K, Future<V>> entry : futures.entrySet()) {
+            K key = entry.getKey();
+            Future<V> future = entry.getValue();
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                result.addValue(key, future.get(remaining, TimeUnit.NANOSECONDS));
+            }
+            catch (ExecutionException e) {
+                result.addFailure(key, e.getCause());
+            }
+            catch (TimeoutException e) {
+                future.cancel(true);
+                result.addFailure(key, new TimeoutException("Timed out after " +
+                        _deadline.toSeconds() + " seconds"));
+            }
+            catch (InterruptedException e) {
+                future.cancel(true);
+                result.addFailure(key, e);
+                Thread.currentThread().interrupt();
+            }
+        }
+        return result;
+    }
+
+
+    @FunctionalInterface
+    public interface Fetcher<K, V> {
+        V fetch(K key) throws Exception;
+    }
+
+
+    public static class Result<K, V> {
+
+        private final Map<K, V> _values = new LinkedHashMap<>();
+        private final Map<K, Throwable> _failures = new LinkedHashMap<>();
+
+        private void addValue(K key, V value) { _values.put(key, value); }
+
+        private void addFailure(K key, Throwable t) { _failures.put(key, t); }
+
+        public Map<K, V> getValues() { return _values; }
+
+        public Map<K, Throwable> getFailures() { return _failures; }
+
+        public boolean hasFailures() { return ! _failures.isEmpty(); }
+    }
+
+}
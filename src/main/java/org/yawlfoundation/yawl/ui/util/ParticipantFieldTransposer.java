@@ -1,10 +1,9 @@
 package org.yawlfoundation.yawl.ui.util;
 
+import org.yawlfoundation.yawl.resourcing.datastore.eventlog.ResourceEvent;
 import org.yawlfoundation.yawl.resourcing.resource.Participant;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 /**
  * @author Michael Adams
@@ -12,8 +11,10 @@ import java.util.Map;
  */
 public class ParticipantFieldTransposer {
 
-    private final List<Participant> _participants;
-    private Map<String, String> _kvLookup = new HashMap<>();
+    // field -> (field value -> participant), built once from the participant list
+    private final Map<Field, Map<String, Participant>> _indexes = new EnumMap<>(Field.class);
+    private final Map<String, String> _kvLookup = new HashMap<>();
+    private final Set<String> _unknown = new HashSet<>();                // misses
     private Field _from;
     private Field _to;
 
@@ -33,7 +34,17 @@ public class ParticipantFieldTransposer {
 
 
     public ParticipantFieldTransposer(List<Participant> pList) {
-        _participants = pList;
+        for (Field field : Field.values()) {
+            _indexes.put(field, new HashMap<>());
+        }
+        for (Participant p : pList) {
+            for (Field field : Field.values()) {
+                String value = getValue(p, field);
+                if (value != null) {
+                    _indexes.get(field).putIfAbsent(value, p);
+                }
+            }
+        }
     }
 
 
@@ -47,38 +58,43 @@ public class ParticipantFieldTransposer {
     }
 
     public String transpose(Field from, Field to, String fromValue) {
-        if (_kvLookup.containsKey(fromValue)) {
-            return _kvLookup.get(fromValue);
+        String value = _kvLookup.get(fromValue);
+        if (value != null || fromValue == null || _unknown.contains(fromValue)) {
+            return value;
+        }
+        Participant p = _indexes.get(from).get(fromValue);
+        if (p != null) {
+            value = getValue(p, to);
+        }
+        if (value != null) {
+            _kvLookup.put(fromValue, value);
+        }
+        else {
+            _unknown.add(fromValue);
+        }
+        return value;
+    }
+
+
+    // transposes the resource id of each event, using the fields set
+    public void transpose(List<ResourceEvent> events) {
+        for (ResourceEvent event : events) {
+            event.set_resourceID(transpose(event.get_resourceID()));
         }
-        Participant p = getParticipant(from, fromValue);
-       if (p != null) {
-           String value = null;
-           switch (to) {
-               case Key: value = p.getID(); break;
-               case UserID: value = p.getUserID(); break;
-               case FullName: value = p.getFullName(); break;
-               case ReversedName: value = p.getLastName() + ", " + p.getFirstName(); break;
-           }
-           if (value != null) {
-               _kvLookup.put(fromValue, value);
-               return value;
-           }
-       }
-       return null;
     }
 
 
     public Map<String, String> getTransposeMap() { return _kvLookup; }
 
 
-    private Participant getParticipant(Field field, String key) {
-        for (Participant p : _participants) {
-            switch (field) {
-                case Key: if (p.getID().equals(key)) return p; break;
-                case UserID: if (p.getUserID().equals(key)) return p; break;
-            }
+    private String getValue(Participant p, Field field) {
+        switch (field) {
+            case Key: return p.getID();
+            case UserID: return p.getUserID();
+            case FullName: return p.getFullName();
+            case ReversedName: return p.getLastName() + ", " + p.getFirstName();
+            default: return null;
         }
-        return null;
     }
 
 }
@@ -3,50 +3,217 @@ package org.yawlfoundation.yawl.ui.util;
 import org.yawlfoundation.yawl.engine.YSpecificationID;
 import org.yawlfoundation.yawl.engine.interfce.WorkItemRecord;
 import org.yawlfoundation.yawl.resourcing.TaskPrivileges;
+import org.yawlfoundation.yawl.resourcing.rsInterface.ResourceGatewayException;
 import org.yawlfoundation.yawl.ui.service.ClientEvent;
-import org.yawlfoundation.yawl.ui.service.ResourceClient;
+import org.yawlfoundation.yawl.ui.service.ClientEventListener;
 
+import java.io.IOException;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * Caches task privileges by specification and task, shared by all sessions. The
+ * cache holds up to a maximum number of entries, evicting the least recently used,
+ * and optionally expires entries after a time-to-live. Concurrent requests for the
+ * same uncached privileges share a single load.
+ *
  * @author Michael Adams
  * @date 19/8/2022
  */
-public class TaskPrivilegesCache {
+public class TaskPrivilegesCache implements ClientEventListener {
 
-    private final Map<YSpecificationID, Map<String, TaskPrivileges>> _cache = new HashMap<>();
+    private final int _maxSize;
+    private final long _ttlMsecs;
 
+    // access-ordered, so the eldest entry is the least recently used
+    private final Map<Key, Entry> _cache;
 
-    public TaskPrivilegesCache(ResourceClient client) {
-        client.addEventListener(e -> {
-            if (e.getAction() == ClientEvent.Action.SpecificationUnload) {
-                remove((YSpecificationID) e.getObject());
+    // spec id -> times unloaded, so that a load begun before an unload isn't cached
+    // after it (guarded by the cache's lock)
+    private final Map<YSpecificationID, Long> _unloads = new HashMap<>();
+
+    // the loads in progress - later requests for the same key wait on these
+    private final Map<Key, CompletableFuture<TaskPrivileges>> _loading =
+            new ConcurrentHashMap<>();
+
+    private final AtomicLong _hits = new AtomicLong();
+    private final AtomicLong _misses = new AtomicLong();
+    private final AtomicLong _loads = new AtomicLong();
+    private final AtomicLong _loadNanos = new AtomicLong();
+    private final AtomicLong _evictions = new AtomicLong();
+
+
+    public TaskPrivilegesCache() {
+        this(ApplicationProperties.getTaskPrivilegesCacheSize(),
+                ApplicationProperties.getTaskPrivilegesCacheTTLSeconds());
+    }
+
+
+    public TaskPrivilegesCache(int maxSize, long ttlSeconds) {
+        _maxSize = Math.max(1, maxSize);
+        _ttlMsecs = TimeUnit.SECONDS.toMillis(Math.max(0, ttlSeconds));
+        _cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > _maxSize) {
+                    _evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+
+    // must be registered as a client event listener to see spec unloads
+    @Override
+    public void onClientEvent(ClientEvent e) {
+        if (e.getAction() == ClientEvent.Action.SpecificationUnload) {
+            remove((YSpecificationID) e.getObject());
+        }
+    }
+
+
+    /**
+     * Gets the privileges for a work item's task, loading them if they are not cached
+     * @param wir the work item
+     * @param loader loads the privileges from the resource service
+     * @return the task's privileges, or null if there are none
+     */
+    public TaskPrivileges get(WorkItemRecord wir, Loader loader)
+            throws IOException, ResourceGatewayException {
+        Key key = new Key(new YSpecificationID(wir), wir.getTaskID());
+        TaskPrivileges privileges = getIfPresent(key);
+        if (privileges != null) {
+            _hits.incrementAndGet();
+            return privileges;
+        }
+        _misses.incrementAndGet();
+
+        CompletableFuture<TaskPrivileges> load = new CompletableFuture<>();
+        CompletableFuture<TaskPrivileges> inFlight = _loading.putIfAbsent(key, load);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+        try {
+            privileges = getIfPresent(key);             // loaded while this thread missed
+            if (privileges == null) {
+                privileges = load(key, loader);
+            }
+            load.complete(privileges);
+            return privileges;
+        }
+        catch (IOException | ResourceGatewayException | RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        }
+        finally {
+            _loading.remove(key, load);
+        }
+    }
+
+
+    public int size() {
+        synchronized (_cache) {
+            return _cache.size();
+        }
+    }
+
+    public long getHitCount() { return _hits.get(); }
+
+    public long getMissCount() { return _misses.get(); }
+
+    public long getLoadCount() { return _loads.get(); }
+
+    public long getEvictionCount() { return _evictions.get(); }
+
+    public double getAverageLoadMsecs() {
+        long loads = _loads.get();
+        return loads > 0 ? _loadNanos.get() / (loads * 1_000_000.0) : 0;
+    }
+
+
+    private TaskPrivileges load(Key key, Loader loader)
+            throws IOException, ResourceGatewayException {
+        long generation = getUnloadCount(key.specID);
+        long start = System.nanoTime();
+        TaskPrivileges privileges = loader.load();
+        _loadNanos.addAndGet(System.nanoTime() - start);
+        _loads.incrementAndGet();
+        if (privileges != null) {
+            synchronized (_cache) {
+                if (generation == getUnloadCount(key.specID)) {
+                    _cache.put(key, new Entry(privileges, System.currentTimeMillis()));
+                }
             }
-        });
+        }
+        return privileges;
     }
 
 
-    public TaskPrivileges get(WorkItemRecord wir) {
-        Map<String, TaskPrivileges> taskMap = getTaskMap(wir);
-        return taskMap.get(wir.getTaskID());
+    private TaskPrivileges getIfPresent(Key key) {
+        synchronized (_cache) {
+            Entry entry = _cache.get(key);
+            if (entry == null) return null;
+            if (_ttlMsecs > 0 && System.currentTimeMillis() - entry.loaded > _ttlMsecs) {
+                _cache.remove(key);
+                return null;
+            }
+            return entry.privileges;
+        }
     }
 
 
-    public void put(WorkItemRecord wir, TaskPrivileges privileges) {
-        Map<String, TaskPrivileges> taskMap = getTaskMap(wir);
-        taskMap.put(wir.getTaskID(), privileges);
+    // rethrows the failure of a load made by another thread
+    private TaskPrivileges await(CompletableFuture<TaskPrivileges> inFlight)
+            throws IOException, ResourceGatewayException {
+        try {
+            return inFlight.get();
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof ResourceGatewayException) throw (ResourceGatewayException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IOException(cause);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading task privileges");
+        }
     }
 
 
-    private Map<String, TaskPrivileges> getTaskMap(WorkItemRecord wir) {
-        YSpecificationID key = new YSpecificationID(wir);
-        return _cache.computeIfAbsent(key, k -> new HashMap<>());
+    private long getUnloadCount(YSpecificationID specID) {
+        synchronized (_cache) {
+            return _unloads.getOrDefault(specID, 0L);
+        }
     }
 
 
     private void remove(YSpecificationID specID) {
-        _cache.remove(specID);
+        synchronized (_cache) {
+            _unloads.merge(specID, 1L, Long::sum);
+            _cache.keySet().removeIf(key -> key.specID.equals(specID));
+        }
+    }
+
+
+    @FunctionalInterface
+    public interface Loader {
+        TaskPrivileges load() throws IOException, ResourceGatewayException;
     }
 
+
+    private record Key(YSpecificationID specID, String taskID) { }
+
+
+    private record Entry(TaskPrivileges privileges, long loaded) { }
+
 }
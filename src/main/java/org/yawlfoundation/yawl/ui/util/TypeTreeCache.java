@@ -0,0 +1,63 @@
+package org.yawlfoundation.yawl.ui.util;
+
+import org.yawlfoundation.yawl.engine.YSpecificationID;
+import org.yawlfoundation.yawl.ui.service.ClientEvent;
+import org.yawlfoundation.yawl.ui.service.ClientEventListener;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the internal type tree of each loaded specification, shared by all sessions.
+ * A specification's tree can't change while it is loaded, so an entry (including the
+ * result that a specification has no internal types) is kept until the specification
+ * is unloaded. Trees are only read once built, so can be shared.
+ *
+ * @author Michael Adams
+ * @date 18/10/2026
+ */
+public class TypeTreeCache implements ClientEventListener {
+
+    private static final TypeTreeCache INSTANCE = new TypeTreeCache();
+
+    private final Map<YSpecificationID, Optional<TNode>> _cache = new ConcurrentHashMap<>();
+
+
+    private TypeTreeCache() { }
+
+
+    public static TypeTreeCache getInstance() { return INSTANCE; }
+
+
+    // must be registered as a client event listener to see spec unloads
+    @Override
+    public void onClientEvent(ClientEvent e) {
+        if (e.getAction() == ClientEvent.Action.SpecificationUnload) {
+            _cache.remove((YSpecificationID) e.getObject());
+        }
+    }
+
+
+    /**
+     * @param specID the specification
+     * @param loader builds the tree when it is not cached
+     * @return the specification's type tree, or null if it has no internal types
+     */
+    public TNode get(YSpecificationID specID, Loader loader) throws IOException {
+        Optional<TNode> tree = _cache.get(specID);
+        if (tree == null) {
+            tree = Optional.ofNullable(loader.load());
+            _cache.putIfAbsent(specID, tree);
+        }
+        return tree.orElse(null);
+    }
+
+
+    @FunctionalInterface
+    public interface Loader {
+        TNode load() throws IOException;
+    }
+
+}
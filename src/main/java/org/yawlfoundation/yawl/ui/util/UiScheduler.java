@@ -0,0 +1,116 @@
+package org.yawlfoundation.yawl.ui.util;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The application-wide scheduler for delayed and periodic UI work, such as the
+ * delayed refresh of a view. Delayed refreshes are keyed by view: a refresh that
+ * would run within a second of one already pending for the same view is merged into
+ * it, and all pending refreshes of a view can be cancelled when it is detached.
+ *
+ * @author Michael Adams
+ * @date 18/10/2026
+ */
+public class UiScheduler {
+
+    // refreshes for the same view due within this many msecs of each other are merged
+    private static final long COALESCE_MSECS = 1000;
+
+    private static final ScheduledExecutorService EXECUTOR =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "yawlui-scheduler");
+                t.setDaemon(true);
+                return t;
+            });
+
+    private static final Map<Object, Set<ScheduledFuture<?>>> PENDING =
+            new ConcurrentHashMap<>();
+
+    private static final AtomicLong SCHEDULED = new AtomicLong();
+    private static final AtomicLong COALESCED = new AtomicLong();
+    private static final AtomicLong CANCELLED = new AtomicLong();
+
+
+    private UiScheduler() { }
+
+
+    /**
+     * Schedules a one-off task for a key (typically a view), unless a task for the
+     * same key is already due within a second of it
+     * @param key the key to coalesce and cancel by
+     * @param delayMsecs the delay before the task runs
+     * @param task the task to run. It runs on the scheduler thread, so UI updates
+     *             must be made via UI.access
+     * @return true if the task was scheduled, false if it was merged into a
+     * pending task
+     */
+    public static boolean schedule(Object key, long delayMsecs, Runnable task) {
+        boolean[] scheduled = new boolean[1];
+
+        // the task's own removal waits on the map entry, so the future is set first
+        PENDING.compute(key, (k, pending) -> {
+            if (pending == null) {
+                pending = ConcurrentHashMap.newKeySet();
+            }
+            for (ScheduledFuture<?> future : pending) {
+                if (Math.abs(future.getDelay(TimeUnit.MILLISECONDS) - delayMsecs)
+                        <= COALESCE_MSECS) {
+                    return pending;
+                }
+            }
+            ScheduledFuture<?>[] future = new ScheduledFuture<?>[1];
+            future[0] = EXECUTOR.schedule(() -> {
+                remove(key, future[0]);
+                task.run();
+            }, delayMsecs, TimeUnit.MILLISECONDS);
+            pending.add(future[0]);
+            scheduled[0] = true;
+            return pending;
+        });
+
+        (scheduled[0] ? SCHEDULED : COALESCED).incrementAndGet();
+        return scheduled[0];
+    }
+
+
+    // cancels any tasks still pending for the key
+    public static void cancel(Object key) {
+        Set<ScheduledFuture<?>> pending = PENDING.remove(key);
+        if (pending != null) {
+            for (ScheduledFuture<?> future : pending) {
+                if (future.cancel(false)) {
+                    CANCELLED.incrementAndGet();
+                }
+            }
+        }
+    }
+
+
+    public static ScheduledFuture<?> scheduleWithFixedDelay(Runnable task,
+                                                           long delay, TimeUnit unit) {
+        return EXECUTOR.scheduleWithFixedDelay(task, delay, delay, unit);
+    }
+
+
+    public static int getPendingCount() {
+        return PENDING.values().stream().mapToInt(Set::size).sum();
+    }
+
+    public static long getScheduledCount() { return SCHEDULED.get(); }
+
+    public static long getCoalescedCount() { return COALESCED.get(); }
+
+    public static long getCancelledCount() { return CANCELLED.get(); }
+
+
+    private static void remove(Object key, ScheduledFuture<?> future) {
+        PENDING.computeIfPresent(key, (k, pending) -> {
+            pending.remove(future);
+            return pending.isEmpty() ? null : pending;
+        });
+    }
+
+}
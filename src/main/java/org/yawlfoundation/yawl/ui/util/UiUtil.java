@@ -22,6 +22,9 @@ import com.vaadin.flow.component.icon.Icon;
 import com.vaadin.flow.component.icon.VaadinIcon;
 import org.yawlfoundation.yawl.util.StringUtil;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -100,6 +103,38 @@ public class UiUtil {
     }
 
 
+    /**
+     * Hands the outcome of a background call back to a UI once it completes. The
+     * handlers run with the UI's session locked, and their changes are pushed to the
+     * browser. Nothing is done if the UI has been detached in the meantime.
+     * @param ui the UI to update
+     * @param future the background call
+     * @param onSuccess receives the call's result
+     * @param onFailure receives the cause of a failed call
+     */
+    public static <T> void accessWhenComplete(UI ui, CompletableFuture<T> future,
+                                              Consumer<T> onSuccess,
+                                              Consumer<Throwable> onFailure) {
+        if (ui == null) return;
+        future.whenComplete((result, error) -> {
+            try {
+                ui.access(() -> {
+                    if (error == null) {
+                        onSuccess.accept(result);
+                    }
+                    else {
+                        onFailure.accept(error instanceof CompletionException &&
+                                error.getCause() != null ? error.getCause() : error);
+                    }
+                });
+            }
+            catch (UIDetachedException e) {
+                // the user has moved on - nothing to update
+            }
+        });
+    }
+
+
     // set focus to the first focusable field in a container
     public static boolean setFocus(Component container) {
         for (Component c : container.getChildren().collect(Collectors.toList())) {
@@ -0,0 +1,196 @@
+package org.yawlfoundation.yawl.ui.util;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.shared.Registration;
+import org.yawlfoundation.yawl.engine.interfce.WorkItemRecord;
+import org.yawlfoundation.yawl.resourcing.QueueSet;
+import org.yawlfoundation.yawl.resourcing.WorkQueue;
+import org.yawlfoundation.yawl.ui.service.Clients;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * A single background poller of the work queues shown in open worklist views. Each
+ * poll fetches the queues of each participant with an open view (and the admin queues
+ * if an admin worklist is open), and pushes the polled queues to the views of those
+ * that have changed since the last poll, so the views need not fetch them again.
+ * Changes are coalesced, so that each UI is pushed to no more often than the minimum
+ * push interval.
+ *
+ * @author Michael Adams
+ * @date 18/10/2026
+ */
+public class WorklistPoller {
+
+    // the queue owner key of the admin queues
+    public static final String ADMIN_QUEUES = "__admin__";
+
+    private static final WorklistPoller INSTANCE = new WorklistPoller();
+
+    private final Map<String, Set<Subscriber>> _subscribers = new ConcurrentHashMap<>();
+
+    // queue owner -> the state of their queued items at the last poll (poll thread only)
+    private final Map<String, Set<String>> _lastStates = new HashMap<>();
+
+    private final long _minPushMsecs;
+
+    // a poll can wait on the services, so it runs off the scheduler thread
+    private final AtomicBoolean _polling = new AtomicBoolean();
+
+
+    private WorklistPoller() {
+        _minPushMsecs = TimeUnit.SECONDS.toMillis(
+                ApplicationProperties.getWorklistMinPushIntervalSeconds());
+        long pollSecs = ApplicationProperties.getWorklistPollSeconds();
+        if (pollSecs > 0) {
+            UiScheduler.scheduleWithFixedDelay(this::startPoll, pollSecs, TimeUnit.SECONDS);
+        }
+    }
+
+
+    public static WorklistPoller getInstance() { return INSTANCE; }
+
+
+    /**
+     * Registers a view's interest in changes to a set of work queues
+     * @param queueOwner the id of the participant who owns the queues, or ADMIN_QUEUES
+     * @param ui the UI of the view
+     * @param onChange passed the polled queues (via ui.access) when they have changed
+     * @return a registration that is removed when the view is no longer shown
+     */
+    public Registration subscribe(String queueOwner, UI ui, Consumer<QueueSet> onChange) {
+        Subscriber subscriber = new Subscriber(ui, onChange);
+        _subscribers.computeIfAbsent(queueOwner, k -> ConcurrentHashMap.newKeySet())
+                .add(subscriber);
+        return () -> unsubscribe(queueOwner, subscriber);
+    }
+
+
+    public int getSubscriberCount() {
+        return _subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+
+    private void unsubscribe(String queueOwner, Subscriber subscriber) {
+        _subscribers.computeIfPresent(queueOwner, (k, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+
+    // a poll still running when the next is due is left to finish, and the next skipped
+    private void startPoll() {
+        if (_polling.compareAndSet(false, true)) {
+            Thread.startVirtualThread(() -> {
+                try {
+                    poll();
+                }
+                finally {
+                    _polling.set(false);
+                }
+            });
+        }
+    }
+
+
+    private void poll() {
+        try {
+            _lastStates.keySet().retainAll(_subscribers.keySet());
+            if (! _subscribers.isEmpty()) {
+                ParallelFetch<String, QueueSet> fetch = new ParallelFetch<>();
+                fetch.fetch(new ArrayList<>(_subscribers.keySet()), this::getQueueSet)
+                        .getValues().forEach(this::compareState);
+            }
+            pushPending();
+        }
+        catch (Throwable t) {
+            // a failed poll is skipped - an exception here would end the polling
+        }
+    }
+
+
+    // the first poll of a set of queues only records its state
+    private void compareState(String queueOwner, QueueSet queueSet) {
+        if (queueSet == null) return;                        // treat as a failed fetch
+        Set<String> state = getQueueState(queueSet);
+        Set<String> previous = _lastStates.put(queueOwner, state);
+        if (previous != null && ! previous.equals(state)) {
+            Set<Subscriber> subscribers = _subscribers.get(queueOwner);
+            if (subscribers != null) {
+                subscribers.forEach(subscriber -> subscriber.setPending(queueSet));
+            }
+        }
+    }
+
+
+    private void pushPending() {
+        long now = System.currentTimeMillis();
+        _subscribers.forEach((queueOwner, subscribers) ->
+            subscribers.forEach(subscriber -> {
+                if (subscriber.isDue(now, _minPushMsecs) && ! subscriber.push(now)) {
+                    unsubscribe(queueOwner, subscriber);        // ui has gone
+                }
+            })
+        );
+    }
+
+
+    private QueueSet getQueueSet(String queueOwner) throws Exception {
+        return ADMIN_QUEUES.equals(queueOwner) ?
+                Clients.getResourceClient().getAdminWorkQueues() :
+                Clients.getResourceClient().getUserWorkQueues(queueOwner);
+    }
+
+
+    private Set<String> getQueueState(QueueSet queueSet) {
+        Set<String> state = new HashSet<>();
+        for (int i = WorkQueue.OFFERED; i <= WorkQueue.WORKLISTED; i++) {
+            for (WorkItemRecord wir : queueSet.getQueuedWorkItems(i)) {
+                state.add(String.join("|", String.valueOf(i), wir.getID(),
+                        wir.getStatus(), wir.getResourceStatus()));
+            }
+        }
+        return state;
+    }
+
+
+    private static class Subscriber {
+
+        private final UI _ui;
+        private final Consumer<QueueSet> _onChange;
+        private volatile QueueSet _pending;                // the latest unpushed queues
+        private long _lastPush;                                  // poll thread only
+
+        Subscriber(UI ui, Consumer<QueueSet> onChange) {
+            _ui = ui;
+            _onChange = onChange;
+        }
+
+        void setPending(QueueSet queueSet) { _pending = queueSet; }
+
+        boolean isDue(long now, long minInterval) {
+            return _pending != null && now - _lastPush >= minInterval;
+        }
+
+        // returns false if the ui is no longer attached
+        boolean push(long now) {
+            QueueSet queueSet = _pending;
+            _pending = null;
+            _lastPush = now;
+            try {
+                _ui.access(() -> _onChange.accept(queueSet));
+                return true;
+            }
+            catch (UIDetachedException e) {
+                return false;
+            }
+        }
+    }
+
+}
@@ -3,16 +3,21 @@ package org.yawlfoundation.yawl.ui.view;
 import com.vaadin.flow.component.ClickEvent;
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.ComponentEventListener;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.dependency.CssImport;
 import com.vaadin.flow.component.grid.FooterRow;
 import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.grid.GridMultiSelectionModel;
 import com.vaadin.flow.component.grid.GridSortOrder;
 import com.vaadin.flow.component.grid.GridVariant;
 import com.vaadin.flow.component.html.H4;
 import com.vaadin.flow.component.icon.Icon;
 import com.vaadin.flow.component.icon.VaadinIcon;
+import com.vaadin.flow.data.provider.CallbackDataProvider;
+import com.vaadin.flow.data.provider.Query;
 import com.vaadin.flow.data.provider.SortDirection;
 import org.yawlfoundation.yawl.engine.interfce.WorkItemRecord;
 import org.yawlfoundation.yawl.resourcing.resource.Participant;
@@ -22,11 +27,15 @@ import org.yawlfoundation.yawl.ui.layout.JustifiedButtonLayout;
 import org.yawlfoundation.yawl.ui.layout.UnpaddedVerticalLayout;
 import org.yawlfoundation.yawl.ui.menu.ActionIcon;
 import org.yawlfoundation.yawl.ui.menu.ActionRibbon;
+import org.yawlfoundation.yawl.ui.util.UiScheduler;
+import org.yawlfoundation.yawl.ui.util.UiUtil;
 import org.yawlfoundation.yawl.util.StringUtil;
 import org.yawlfoundation.yawl.worklet.admin.AdministrationTask;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * @author Michael Adams
@@ -41,6 +50,15 @@ abstract class AbstractGridView<T> extends AbstractView {
 
     private final boolean _showHeader;
 
+    // lazy mode only: the positions of the items in the grid's sort order, and the
+    // sort they were built with
+    private Integer[] _sortIndex;
+    private Comparator<T> _indexSort;
+
+    // lazy mode only: item id -> its row's action ribbon, reused when the grid
+    // rereads rows whose items haven't changed
+    private final Map<Object, ActionRibbon> _itemActions = new HashMap<>();
+
 
     protected AbstractGridView() { this(true); }
 
@@ -80,10 +98,28 @@ abstract class AbstractGridView<T> extends AbstractView {
 
 
     protected boolean showHeader() { return _showHeader; }
-    
+
+
+    // views with potentially large item lists override to have their grids fetch
+    // rows a page at a time, rather than sending the whole list to the grid. The
+    // pages, sort and count are still taken from the list loaded by getItems(), as
+    // the engine and resource service have no paged or counted queries - so only
+    // the rows sent to and rendered by the browser are bounded, not the list held
+    // in the session
+    protected boolean isLazy() { return false; }
+
+
+    // identifies a row across refreshes - by default the item itself
+    protected Object getItemId(T item) { return item; }
+
+
+    // lazy mode only: called with each page of rows just before they are rendered,
+    // so that any lookups the rows need can be made together
+    protected void prefetch(List<T> page) { }
+
 
     protected Component createLayout() {
-        _header = new H4(String.format("%s (%d)", getTitle(),  _items.size()));
+        _header = new H4(String.format("%s (%d)", getTitle(),  getItemCount()));
         _grid = createGrid();
         return createGridPanel(_header, _grid);
     }
@@ -91,10 +127,22 @@ abstract class AbstractGridView<T> extends AbstractView {
 
     protected Grid<T> createGrid() {
         Grid<T> grid = new Grid<>();
-        grid.setItems(_items);
-        grid.setSelectionMode(Grid.SelectionMode.MULTI);
+        if (isLazy()) {
+            grid.setItems(new CallbackDataProvider<>(this::getPage,
+                    query -> getItemCount(), this::getItemId));
+        }
+        else {
+            grid.setItems(_items);
+        }
+        GridMultiSelectionModel<T> selectionModel = (GridMultiSelectionModel<T>)
+                grid.setSelectionMode(Grid.SelectionMode.MULTI);
+        if (isLazy()) {
+            // a lazy grid hides its select all checkbox unless asked to show it
+            selectionModel.setSelectAllCheckboxVisibility(
+                    GridMultiSelectionModel.SelectAllCheckboxVisibility.VISIBLE);
+        }
         addColumns(grid);
-        Grid.Column<T> actionColumn = grid.addComponentColumn(this::createItemActions);
+        Grid.Column<T> actionColumn = grid.addComponentColumn(this::getItemActions);
         configureGrid(grid);
         configureActionColumn(actionColumn);
         configureComponentColumns(grid);
@@ -103,6 +151,15 @@ abstract class AbstractGridView<T> extends AbstractView {
     }
 
 
+    private ActionRibbon getItemActions(T item) {
+        if (! isLazy()) {
+            return createItemActions(item);
+        }
+        return _itemActions.computeIfAbsent(getItemId(item),
+                id -> createItemActions(item));
+    }
+
+
     protected ActionRibbon createItemActions(T item) {
         ActionRibbon ribbon = new ActionRibbon();
         addItemActions(item, ribbon);
@@ -117,27 +174,148 @@ abstract class AbstractGridView<T> extends AbstractView {
     }
 
 
+    // a pending refresh is merged with any other due at about the same time, and is
+    // cancelled if the view is detached before it runs
     protected void timedRefresh(UI ui, long msecs) {
-        TimerTask task = new TimerTask() {
-            @Override
-            public void run() {
-                if (ui != null) {
-                    ui.access(() -> refresh());
+        if (ui != null) {
+            UiScheduler.schedule(this, msecs, () -> {
+                try {
+                    ui.access(this::refresh);
                 }
-            }
-        };
-        new Timer().schedule(task, msecs);
+                catch (UIDetachedException e) {
+                    // nothing to refresh
+                }
+            });
+        }
+    }
+
+
+    @Override
+    protected void onDetach(DetachEvent event) {
+        UiScheduler.cancel(this);
+        super.onDetach(event);
     }
 
 
     protected void refresh() {
-        _items = getItems();
-        _grid.setItems(_items);
+        showItems(getItems());
+    }
+
+
+    // refreshes from a background call - the grid keeps its current rows until
+    // the new items arrive
+    protected void refreshAsync(CompletableFuture<List<T>> itemsFuture) {
+        if (showHeader()) {
+            _header.getElement().setText(String.format("%s (loading...)", getTitle()));
+        }
+        UiUtil.accessWhenComplete(UI.getCurrent(), itemsFuture, this::showItems,
+                e -> {
+                    announceError(e.getMessage());
+                    showItems(_items);
+                });
+    }
+
+
+    protected void showItems(List<T> items) {
+        showAllItems(items);
+    }
+
+
+    // replaces the loaded items, keeping the rows still present in their current
+    // positions, appending the rows added and dropping those removed (by item id).
+    // Only the action ribbons of rows added or changed are built - if no rows were
+    // added or removed, and the grid is unsorted, only the changed rows are redrawn
+    protected void updateItems(List<T> items, Collection<T> changed) {
+        if (! isLazy()) {
+            showAllItems(items);
+            return;
+        }
+
+        Map<Object, T> itemsById = new LinkedHashMap<>();
+        items.forEach(item -> itemsById.put(getItemId(item), item));
+        List<T> updated = new ArrayList<>(items.size());
+        for (T item : _items) {
+            Object id = getItemId(item);
+            T kept = itemsById.remove(id);
+            if (kept != null) {
+                updated.add(kept);
+            }
+            else {
+                _itemActions.remove(id);                          // the rows removed
+            }
+        }
+        boolean resized = updated.size() < _items.size() || ! itemsById.isEmpty();
+        updated.addAll(itemsById.values());                     // the rows added
+        _items = updated;
+        _sortIndex = null;                           // built over the replaced items
+        changed.forEach(item -> _itemActions.remove(getItemId(item)));
+
+        if (resized || ! (changed.isEmpty() || _grid.getSortOrder().isEmpty())) {
+            // a callback provider can't insert, remove or move single rows, so the
+            // grid rereads its visible rows (reusing the unchanged rows' ribbons)
+            _grid.getDataProvider().refreshAll();
+            if (showHeader()) {
+                refreshHeader(_header, getTitle(), getItemCount());
+            }
+        }
+        else {
+            changed.forEach(item -> _grid.getDataProvider().refreshItem(item));
+        }
+    }
+
+
+    private void showAllItems(List<T> items) {
+        _items = items;
+        _sortIndex = null;
+        _itemActions.clear();
+        if (! isLazy()) {
+            _grid.setItems(_items);
+        }
         _grid.getDataProvider().refreshAll();
         _grid.recalculateColumnWidths();
         if (showHeader()) {
-            refreshHeader(_header, getTitle(), _items.size());
+            refreshHeader(_header, getTitle(), getItemCount());
+        }
+    }
+
+
+    // the grid's column sort arrives as the query's in-memory comparator, which
+    // stays the same instance until the sort is changed
+    private Stream<T> getPage(Query<T, Void> query) {
+        int from = Math.min(query.getOffset(), _items.size());
+        int to = (int) Math.min((long) from + query.getLimit(), _items.size());
+        List<T> page;
+        Comparator<T> sort = query.getInMemorySorting();
+        if (sort != null) {
+            if (_sortIndex == null || sort != _indexSort) {
+                _sortIndex = createSortIndex(sort);
+                _indexSort = sort;
+            }
+            page = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                page.add(_items.get(_sortIndex[i]));
+            }
+        }
+        else {
+            page = _items.subList(from, to);
         }
+        prefetch(page);
+        return page.stream();
+    }
+
+
+    private Integer[] createSortIndex(Comparator<T> sort) {
+        Integer[] index = new Integer[_items.size()];
+        for (int i = 0; i < index.length; i++) {
+            index[i] = i;
+        }
+        Arrays.sort(index, (i, j) -> sort.compare(_items.get(i), _items.get(j)));
+        return index;
+    }
+
+
+    private int getItemCount() {
+        return _items.size();
     }
 
 
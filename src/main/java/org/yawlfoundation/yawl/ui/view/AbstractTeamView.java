@@ -1,16 +1,16 @@
 package org.yawlfoundation.yawl.ui.view;
 
 import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Span;
 import org.yawlfoundation.yawl.engine.interfce.WorkItemRecord;
 import org.yawlfoundation.yawl.resourcing.QueueSet;
 import org.yawlfoundation.yawl.resourcing.WorkQueue;
 import org.yawlfoundation.yawl.resourcing.resource.Participant;
-import org.yawlfoundation.yawl.resourcing.rsInterface.ResourceGatewayException;
 import org.yawlfoundation.yawl.ui.announce.Announcement;
 import org.yawlfoundation.yawl.ui.menu.ActionRibbon;
+import org.yawlfoundation.yawl.ui.util.ParallelFetch;
 
-import java.io.IOException;
-import java.util.Set;
+import java.util.*;
 
 /**
  * @author Michael Adams
@@ -18,6 +18,10 @@ import java.util.Set;
  */
 public abstract class AbstractTeamView extends AbstractWorklistView {
 
+    // not initialised here: these are first set during the superclass constructor
+    private Set<Participant> _unavailableMembers;
+    private Span _unavailableLabel;
+
     public AbstractTeamView(Participant participant) {
         this(participant, true);
     }
@@ -56,24 +60,66 @@ public abstract class AbstractTeamView extends AbstractWorklistView {
     protected Grid<WorkItemRecord> createGrid() {
         Grid<WorkItemRecord> grid = createAdminGrid();
         grid.setSelectionMode(Grid.SelectionMode.NONE);
+
+        // lists the members whose items are missing from the grid
+        _unavailableLabel = new Span();
+        _unavailableLabel.getStyle().set("color", "var(--lumo-error-text-color)");
+        grid.getFooterRows().get(0).getCell(grid.getColumns().get(0))
+                .setComponent(_unavailableLabel);
+        showUnavailableMembers();
         return grid;
     }
 
 
+    // members whose queues could not be retrieved on the last refresh
+    protected Set<Participant> getUnavailableMembers() {
+        return _unavailableMembers != null ? _unavailableMembers : Collections.emptySet();
+    }
+
+
+    // fetches the members' queues concurrently, then merges whatever arrived in time
     private QueueSet refreshMembersQueueSet(Participant p) {
+        ParallelFetch<Participant, QueueSet> queueFetch = new ParallelFetch<>();
+        ParallelFetch.Result<Participant, QueueSet> fetched = queueFetch.fetch(
+                getTeamMembers(p),
+                member -> getResourceClient().getUserWorkQueues(member.getID()));
+
         QueueSet qSet = new QueueSet();
-        for (Participant member : getTeamMembers(p)) {
-            try {
-                QueueSet memberSet = getResourceClient().getUserWorkQueues(member.getID());
+        _unavailableMembers = new HashSet<>(fetched.getFailures().keySet());
+        fetched.getValues().forEach((member, memberSet) -> {
+            if (memberSet != null) {
                 for (WorkQueue queue : memberSet.getActiveQueues()) {
                     qSet.addToQueue(queue.getQueueType(), queue);
                 }
             }
-            catch (IOException | ResourceGatewayException e) {
-                Announcement.warn(e.getMessage());
+            else {
+                _unavailableMembers.add(member);                // no queues returned
             }
+        });
+
+        if (! _unavailableMembers.isEmpty()) {
+            Announcement.warn("Unable to retrieve the work queues of: " +
+                    getUnavailableMemberNames());
         }
+        showUnavailableMembers();
         return qSet;
     }
 
+
+    // the label is null until the grid has been created
+    private void showUnavailableMembers() {
+        if (_unavailableLabel != null) {
+            _unavailableLabel.setText(getUnavailableMembers().isEmpty() ? "" :
+                    "Work queues unavailable for: " + getUnavailableMemberNames());
+        }
+    }
+
+
+    private String getUnavailableMemberNames() {
+        List<String> names = new ArrayList<>();
+        getUnavailableMembers().forEach(member -> names.add(member.getFullName()));
+        Collections.sort(names);
+        return String.join(", ", names);
+    }
+
 }
@@ -12,6 +12,7 @@ import org.yawlfoundation.yawl.ui.announce.Announcement;
 import org.yawlfoundation.yawl.ui.service.*;
 import org.yawlfoundation.yawl.ui.util.TNode;
 import org.yawlfoundation.yawl.ui.util.TNodeParser;
+import org.yawlfoundation.yawl.ui.util.TypeTreeCache;
 import org.yawlfoundation.yawl.ui.util.UiUtil;
 import org.yawlfoundation.yawl.util.JDOMUtil;
 
@@ -107,6 +108,11 @@ public abstract class AbstractView extends VerticalLayout {
 
 
     protected TNode getInternalTypeTree(YSpecificationID specID) throws IOException {
+        return TypeTreeCache.getInstance().get(specID, () -> buildInternalTypeTree(specID));
+    }
+
+
+    private TNode buildInternalTypeTree(YSpecificationID specID) throws IOException {
         String specSchema = getEngineClient().getSpecificationDataSchema(specID);
         if (specSchema == null || ! specSchema.contains("yawl:")) {  // short circuit
             return null;
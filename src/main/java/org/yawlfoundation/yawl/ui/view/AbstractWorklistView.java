@@ -1,6 +1,8 @@
 package org.yawlfoundation.yawl.ui.view;
 
+import com.vaadin.flow.component.AttachEvent;
 import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.Focusable;
 import com.vaadin.flow.component.dependency.CssImport;
 import com.vaadin.flow.component.grid.FooterRow;
@@ -11,6 +13,7 @@ import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.binder.Binder;
+import com.vaadin.flow.shared.Registration;
 import org.yawlfoundation.yawl.engine.interfce.WorkItemRecord;
 import org.yawlfoundation.yawl.resourcing.QueueSet;
 import org.yawlfoundation.yawl.resourcing.WorkQueue;
@@ -23,6 +26,7 @@ import org.yawlfoundation.yawl.ui.component.SingleSelectParticipantList;
 import org.yawlfoundation.yawl.ui.menu.ActionRibbon;
 import org.yawlfoundation.yawl.ui.util.CaseIdComparator;
 import org.yawlfoundation.yawl.ui.util.UiUtil;
+import org.yawlfoundation.yawl.ui.util.WorklistPoller;
 import org.yawlfoundation.yawl.util.StringUtil;
 
 import java.io.IOException;
@@ -52,6 +56,16 @@ public abstract class AbstractWorklistView extends AbstractGridView<WorkItemReco
     private UserPrivileges _userPrivileges;
     private QueueSet _queueSet;
 
+    // admin grids only: item id -> assigned participants, gathered a page at a time
+    // and rebuilt on each refresh
+    private Map<String, Set<Participant>> _assignedParticipants;
+    private boolean _showsAssigned;
+
+    // items acted on since the last refresh, redrawn even if their status is unchanged
+    private final Set<String> _actedOnItemIDs = new HashSet<>();
+
+    private Registration _pollRegistration;
+
 
     public AbstractWorklistView(Participant participant) {
         this(participant, true);
@@ -74,6 +88,64 @@ public abstract class AbstractWorklistView extends AbstractGridView<WorkItemReco
         return getAllWorkItems();
     }
 
+
+    @Override
+    protected boolean isLazy() { return true; }
+
+
+    @Override
+    protected Object getItemId(WorkItemRecord wir) { return wir.getID(); }
+
+
+    // the assigned participants of the page's rows not already known are fetched
+    // together, before the rows are rendered
+    @Override
+    protected void prefetch(List<WorkItemRecord> page) {
+        if (! _showsAssigned) return;
+        if (_assignedParticipants == null) {
+            _assignedParticipants = new HashMap<>();
+        }
+        Map<String, Integer> itemQueues = getAssignedQueues(page);
+        if (! itemQueues.isEmpty()) {
+            _assignedParticipants.putAll(
+                    getResourceClient().getAssignedParticipants(itemQueues));
+        }
+    }
+
+
+    // rows added or removed since the last refresh are applied to the grid's rows,
+    // and of the others only those that have changed are redrawn
+    @Override
+    protected void showItems(List<WorkItemRecord> items) {
+        _assignedParticipants = null;                    // assignments may have changed
+        Map<String, WorkItemRecord> current = mapByID(getLoadedItems());
+        Map<String, WorkItemRecord> updated = mapByID(items);
+        if (current == null || updated == null) {
+            _actedOnItemIDs.clear();
+            super.showItems(items);
+            return;
+        }
+
+        List<WorkItemRecord> changed = new ArrayList<>();
+        for (WorkItemRecord wir : items) {
+            WorkItemRecord shown = current.get(wir.getID());
+            if (shown != null && (_actedOnItemIDs.contains(wir.getID()) ||
+                    ! getRowState(wir).equals(getRowState(shown)))) {
+                changed.add(wir);
+            }
+        }
+        _actedOnItemIDs.clear();
+        updateItems(items, changed);
+    }
+
+
+    // an action may change an item's assigned participants but not its status, so
+    // its row is redrawn on the next refresh regardless
+    protected void markActedOn(WorkItemRecord wir) {
+        _actedOnItemIDs.add(wir.getID());
+    }
+
+
     @Override
     void addColumns(Grid<WorkItemRecord> grid) {
         grid.addColumn(WorkItemRecord::getID).setHeader(UiUtil.bold("Item"))
@@ -111,6 +183,39 @@ public abstract class AbstractWorklistView extends AbstractGridView<WorkItemReco
     // to be overridden as required in subclasses
     protected void initCompleted() { }
 
+
+    // to be overridden by subclasses whose queues should be polled for changes, to
+    // return the queue owner's id (or WorklistPoller.ADMIN_QUEUES)
+    protected String getPolledQueueOwner() { return null; }
+
+
+    @Override
+    protected void onAttach(AttachEvent event) {
+        super.onAttach(event);
+        String queueOwner = getPolledQueueOwner();
+        if (queueOwner != null) {
+            _pollRegistration = WorklistPoller.getInstance().subscribe(
+                    queueOwner, event.getUI(), this::showQueueSet);
+        }
+    }
+
+
+    @Override
+    protected void onDetach(DetachEvent event) {
+        if (_pollRegistration != null) {
+            _pollRegistration.remove();
+            _pollRegistration = null;
+        }
+        super.onDetach(event);
+    }
+
+    // shows queues polled by the WorklistPoller, rather than fetching them again
+    private void showQueueSet(QueueSet queueSet) {
+        _queueSet = queueSet;
+        showItems(getAllWorkItems());
+    }
+
+
     protected HorizontalLayout getContentPanel() {
         return _content;
     }
@@ -129,6 +234,7 @@ public abstract class AbstractWorklistView extends AbstractGridView<WorkItemReco
         grid.setColumnOrder(columns);
 
         enableDocumentationEditing(grid);
+        _showsAssigned = true;
         return grid;
     }
 
@@ -199,17 +305,10 @@ public abstract class AbstractWorklistView extends AbstractGridView<WorkItemReco
 
 
     protected Component getAssignedParticipants(WorkItemRecord wir) {
-        int queue = -1;
-        switch (wir.getResourceStatus()) {
-            case "Offered" : queue = WorkQueue.OFFERED; break;
-            case "Allocated" : queue = WorkQueue.ALLOCATED; break;
-            case "Started" : queue = WorkQueue.STARTED; break;
-            case "Suspended" : queue = WorkQueue.SUSPENDED; break;
-        }
+        int queue = getAssignedQueue(wir);
         if (queue > -1) {
             try {
-                Set<Participant> pSet = getResourceClient().getAssignedParticipants(
-                        wir.getID(), queue);
+                Set<Participant> pSet = getAssignedParticipantSet(wir, queue);
                 if (pSet == null) {
                     return new Span("Unknown");
                 }
@@ -231,6 +330,45 @@ public abstract class AbstractWorklistView extends AbstractGridView<WorkItemReco
     }
 
 
+    // any item missed by the page's prefetch is fetched when its row is rendered
+    private Set<Participant> getAssignedParticipantSet(WorkItemRecord wir, int queue)
+            throws IOException, ResourceGatewayException {
+        if (_assignedParticipants == null) {
+            _assignedParticipants = new HashMap<>();
+        }
+        if (_assignedParticipants.containsKey(wir.getID())) {
+            return _assignedParticipants.get(wir.getID());
+        }
+        Set<Participant> pSet = getResourceClient().getAssignedParticipants(wir.getID(), queue);
+        _assignedParticipants.put(wir.getID(), pSet);
+        return pSet;
+    }
+
+
+    // the queues to check for those items whose assigned participants aren't known
+    private Map<String, Integer> getAssignedQueues(List<WorkItemRecord> items) {
+        Map<String, Integer> itemQueues = new HashMap<>();
+        for (WorkItemRecord wir : items) {
+            int queue = getAssignedQueue(wir);
+            if (queue > -1 && ! _assignedParticipants.containsKey(wir.getID())) {
+                itemQueues.put(wir.getID(), queue);
+            }
+        }
+        return itemQueues;
+    }
+
+
+    private int getAssignedQueue(WorkItemRecord wir) {
+        switch (wir.getResourceStatus()) {
+            case "Offered" : return WorkQueue.OFFERED;
+            case "Allocated" : return WorkQueue.ALLOCATED;
+            case "Started" : return WorkQueue.STARTED;
+            case "Suspended" : return WorkQueue.SUSPENDED;
+            default: return -1;
+        }
+    }
+
+
     protected List<Participant> getAllParticipants()
             throws ResourceGatewayException, IOException {
         return getResourceClient().getParticipants();
@@ -339,6 +477,27 @@ public abstract class AbstractWorklistView extends AbstractGridView<WorkItemReco
     }
 
 
+    // null if the list has more than one item with the same id
+    private Map<String, WorkItemRecord> mapByID(List<WorkItemRecord> items) {
+        if (items == null) return null;
+        Map<String, WorkItemRecord> map = new HashMap<>();
+        for (WorkItemRecord wir : items) {
+            if (map.put(wir.getID(), wir) != null) {
+                return null;
+            }
+        }
+        return map;
+    }
+
+
+    // the item values shown in a row, or that determine its actions
+    private String getRowState(WorkItemRecord wir) {
+        return String.join("|", wir.getStatus(), wir.getResourceStatus(),
+                wir.getUniqueID(), wir.getDocumentation(), wir.getTimerExpiry(),
+                wir.getStartedBy());
+    }
+
+
     private List<WorkItemRecord> getAllWorkItems() {
         List<WorkItemRecord> items = new ArrayList<>();
         for (int i = WorkQueue.OFFERED; i <= WorkQueue.WORKLISTED; i++) {
@@ -16,6 +16,7 @@ import org.yawlfoundation.yawl.ui.menu.ActionIcon;
 import org.yawlfoundation.yawl.ui.menu.ActionRibbon;
 import org.yawlfoundation.yawl.ui.util.AddedIcons;
 import org.yawlfoundation.yawl.ui.util.Settings;
+import org.yawlfoundation.yawl.ui.util.WorklistPoller;
 import org.yawlfoundation.yawl.util.XNode;
 
 import java.io.IOException;
@@ -50,6 +51,10 @@ public class AdminWorklistView extends AbstractWorklistView {
     }
 
 
+    @Override
+    protected String getPolledQueueOwner() { return WorklistPoller.ADMIN_QUEUES; }
+
+
     @Override
     protected QueueSet refreshQueueSet(Participant p) {
         try {
@@ -194,6 +199,7 @@ public class AdminWorklistView extends AbstractWorklistView {
                 case Reallocate: getResourceClient().reallocateItem(wir.getID(), pid); break;
                 case Restart: getResourceClient().restartItem(wir.getID(), pid); break;
             }
+            markActedOn(wir);
             refresh();
             Announcement.success("%s%s item '%s'", action.name(),
                     (action.name().endsWith("e") ? "d" : "ed"), wir.getID());
@@ -213,6 +219,7 @@ public class AdminWorklistView extends AbstractWorklistView {
                 case Offer: getResourceClient().offerItem(wir.getID(), pids); break;
                 case Reoffer: getResourceClient().reofferItem(wir.getID(), pids); break;
             }
+            markActedOn(wir);
             refresh();
             Announcement.success("%sed item '%s' to %d participant%s",
                     action.name(), wir.getID(), pids.size(), (pids.size() > 1 ? "s" : ""));
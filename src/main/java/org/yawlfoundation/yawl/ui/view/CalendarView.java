@@ -387,10 +387,9 @@ public class CalendarView extends AbstractGridView<CalendarEntry> {
                 case "ALL_NONHUMAN_RESOURCES" : return "All Assets";
             }
         }
-        for (Participant p : _participants) {
-            if (p.getID().equals(id)) {
-                return p.getFullName();
-            }
+        Participant p = getParticipant(id);
+        if (p != null) {
+            return p.getFullName();
         }
         for (NonHumanResource asset : _assets) {
             if (asset.getID().equals(id)) {
@@ -503,6 +502,18 @@ public class CalendarView extends AbstractGridView<CalendarEntry> {
     }
 
 
+    // an indexed lookup, as this is called for every row rendered
+    private Participant getParticipant(String id) {
+        try {
+            return getResourceClient().getParticipantDirectory().getByID(id);
+        }
+        catch (IOException | ResourceGatewayException e) {
+            return _participants.stream()
+                    .filter(p -> p.getID().equals(id)).findAny().orElse(null);
+        }
+    }
+
+
     private List<Participant> getParticipants() {
         try {
             return getResourceClient().getParticipants();
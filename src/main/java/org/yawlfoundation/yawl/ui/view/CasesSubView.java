@@ -32,8 +32,8 @@ public class CasesSubView extends AbstractGridView<RunningCase>
     public CasesSubView() {
         super();
 
-        // update grid when a new case is launched
-        getEngineClient().addEventListener(e -> {
+        // update grid when a new case is launched (while this view is shown)
+        getEngineClient().addEventListener(this, e -> {
             if (e.getAction() == ClientEvent.Action.LaunchCase) {
                 refresh();
             }
@@ -71,7 +71,7 @@ public class CasesSubView extends AbstractGridView<RunningCase>
 
     @Override
     void addItemActions(RunningCase item, ActionRibbon ribbon) {
-        boolean hasWorklets = new InstalledServices().hasWorkletService();
+        boolean hasWorklets = InstalledServices.getInstance().hasWorkletService();
         if (hasWorklets) {
             ActionIcon exceptionAction = ribbon.add(VaadinIcon.EXCLAMATION_CIRCLE_O,
                     ActionIcon.RED, "Worklet Actions", null);
@@ -108,7 +108,8 @@ public class CasesSubView extends AbstractGridView<RunningCase>
                      refresh();
                  });
 
-        ribbon.add(createRefreshAction());
+        ribbon.add(new ActionIcon(VaadinIcon.REFRESH, null, "Refresh",
+                event -> refreshAsync(getEngineClient().getRunningCasesAsync())));
     }
 
     
@@ -118,6 +119,10 @@ public class CasesSubView extends AbstractGridView<RunningCase>
     }
 
 
+    @Override
+    protected boolean isLazy() { return true; }
+
+
     @Override
     public void delayedCaseLaunched(long delay) {
         timedRefresh(UI.getCurrent(), delay);
@@ -95,6 +95,10 @@ public class LogResourceEventView extends AbstractGridView<ResourceEvent> {
     }
 
 
+    @Override
+    protected boolean isLazy() { return true; }
+
+
     public String getExportFileName() {
         if (_exportFileName == null) {
             _exportFileName = "Event History for " + _participant.getFullName();
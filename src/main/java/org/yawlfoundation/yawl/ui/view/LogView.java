@@ -276,9 +276,7 @@ public class LogView extends AbstractView {
             ParticipantFieldTransposer fieldTransposer = new ParticipantFieldTransposer(
                     getResourceClient().getParticipants());
             fieldTransposer.setFields(ParticipantFieldTransposer.Field.Key, selectedFormat);
-            for (ResourceEvent event : events) {
-                event.set_resourceID(fieldTransposer.transpose(event.get_resourceID()));
-            }
+            fieldTransposer.transpose(events);
         }
         catch (Exception e) {
             Announcement.warn("Unable to transpose resource ids: " +e.getMessage());
@@ -1,19 +1,32 @@
 package org.yawlfoundation.yawl.ui.view;
 
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.icon.VaadinIcon;
 import org.yawlfoundation.yawl.engine.YSpecificationID;
 import org.yawlfoundation.yawl.ui.announce.Announcement;
+import org.yawlfoundation.yawl.ui.component.DownloadIconWrapper;
 import org.yawlfoundation.yawl.ui.component.SingleSelectSpecificationIdList;
 import org.yawlfoundation.yawl.ui.menu.ActionRibbon;
+import org.yawlfoundation.yawl.ui.util.ApplicationProperties;
+import org.yawlfoundation.yawl.ui.util.ParallelFetch;
 import org.yawlfoundation.yawl.ui.util.ParticipantFieldTransposer;
 import org.yawlfoundation.yawl.ui.util.UiUtil;
+import org.yawlfoundation.yawl.ui.util.XesResourceRewriter;
 import org.yawlfoundation.yawl.util.StringUtil;
-import org.yawlfoundation.yawl.util.XNode;
-import org.yawlfoundation.yawl.util.XNodeParser;
 
-import java.io.IOException;
+import javax.xml.namespace.QName;
+import javax.xml.stream.*;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Michael Adams
@@ -21,9 +34,11 @@ import java.util.*;
  */
 public class LogXESView extends AbstractGridView<LogXESView.EventRecord> {
 
+
     private final List<YSpecificationID> _specIDList;
-    private final Map<String, List<XNode>> _traceNodeMap = new HashMap<>();
-    private String _xesLog;
+    // all versions: spec version -> its id, for the xes export
+    private final Map<String, YSpecificationID> _versionSpecIDs = new LinkedHashMap<>();
+    private List<EventRecord> _versionEvents;        // all versions, once they've loaded
     protected SingleSelectSpecificationIdList.Versions _versions;
     private final LogView _parent;
 
@@ -41,46 +56,60 @@ public class LogXESView extends AbstractGridView<LogXESView.EventRecord> {
         _selectedResourceFormat = selectedFormat;
         _specIDList = new ArrayList<>(ids);
         build();
+        if (_versions == SingleSelectSpecificationIdList.Versions.All) {
+            loadVersionsAsync();
+        }
     }
 
     
-    protected String getAsCSV() {
-        StringBuilder builder = new StringBuilder();
-        builder.append(getHeadersAsCSV());
-        for (EventRecord row : getItems()) {
-            builder.append(row.toCSV(_versions));
+    // the download writers are taken holding the session lock, and write a snapshot
+    // of the view's content - or are null if there is nothing to download. The csv
+    // export writes the rows already loaded; the raw logs aren't kept once parsed, so
+    // the xes export streams them from the service again, one version at a time
+    protected DownloadIconWrapper.ContentWriter getCSVWriter() {
+        List<EventRecord> rows = getLoadedItems();
+        if (rows == null || rows.isEmpty()) {
+            return null;
         }
-        return builder.toString();
+        List<EventRecord> snapshot = new ArrayList<>(rows);
+        String headers = getHeadersAsCSV();
+        SingleSelectSpecificationIdList.Versions versions = _versions;
+        return os -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8));
+            writer.write(headers);
+            for (EventRecord row : snapshot) {
+                writer.write(row.toCSV(versions));
+            }
+            writer.flush();
+        };
     }
 
 
-    protected String getAsXES() {
+    protected DownloadIconWrapper.ContentWriter getXESWriter() {
+        Map<String, String> transposeMap = new HashMap<>(getTransposeMap());
         if (_versions == SingleSelectSpecificationIdList.Versions.Single) {
-            return transposeXesResourceIds(_xesLog);
-        }
-        try {
-            XNode root = xesToXNode(_xesLog);
-            truncateSpecificationName(root);
-            List<XNode> traceNodes = new ArrayList<>(root.getChildren("trace"));
-            for (XNode traceNode : traceNodes) {
-                root.removeChild(traceNode);
-            }
-            for (String specVersion : _traceNodeMap.keySet()) {
-                List<XNode> mappedTraceNodes = _traceNodeMap.get(specVersion);
-                for (XNode traceNode : mappedTraceNodes) {
-                    XNode versionNode = new XNode("string");
-                    versionNode.addAttribute("key", "spec:version");
-                    versionNode.addAttribute("value", specVersion);
-                    traceNode.insertChild(0, versionNode);
-                }
-                root.addChildren(mappedTraceNodes);
+            if (_specIDList.isEmpty()) {
+                return null;
             }
-            return transposeXesResourceIds(root.toPrettyString());
+            YSpecificationID specID = _specIDList.get(0);
+            return os -> {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8));
+                new XesResourceRewriter(transposeMap).rewrite(fetchLog(specID), writer);
+                writer.flush();
+            };
         }
-        catch (IOException ioe) {
-            Announcement.error(ioe.getMessage());
-            return null;
+        if (_versionSpecIDs.isEmpty()) {
+            return null;                                     // still loading
         }
+        Map<String, YSpecificationID> versionSpecIDs = new LinkedHashMap<>(_versionSpecIDs);
+        return os -> {
+            try {
+                mergeVersionLogs(versionSpecIDs, transposeMap, os);
+            }
+            catch (XMLStreamException e) {
+                throw new IOException("Error merging xes logs: " + e.getMessage());
+            }
+        };
     }
 
     
@@ -89,15 +118,13 @@ public class LogXESView extends AbstractGridView<LogXESView.EventRecord> {
         if (_specIDList.isEmpty()) {
             return Collections.emptyList();
         }
+        if (_versions == SingleSelectSpecificationIdList.Versions.All) {
+            return _versionEvents != null ? _versionEvents :       // loading in background
+                    Collections.emptyList();
+        }
         try {
-            List<EventRecord> events = new ArrayList<>();
-            for (YSpecificationID specID : _specIDList) {
-                _xesLog = getResourceClient().getMergedXESLog(specID, true);
-                if (!successful(_xesLog)) {
-                    throw new IOException(_xesLog);
-                }
-                events.addAll(toEventList(_xesLog));
-            }
+            List<EventRecord> events = toEventList(fetchLog(_specIDList.get(0))).events();
+            transposeResourceIds(events);
             return events;
         }
         catch (IOException e) {
@@ -136,12 +163,12 @@ public class LogXESView extends AbstractGridView<LogXESView.EventRecord> {
     void addFooterActions(ActionRibbon ribbon) {
         ribbon.addDownloadAction(VaadinIcon.FILE_CODE,
                 () -> getSpecLabel().replaceAll(" - ", "_" ) + ".xes",
-                "Download as XES", this::getAsXES,
+                "Download as XES", "text/xml", this::getXESWriter,
                 null);
 
         ribbon.addDownloadAction(VaadinIcon.FILE_TABLE,
                 () -> getSpecLabel().replaceAll(" - ", "_" ) + ".csv",
-                "Download as CSV", this::getAsCSV,
+                "Download as CSV", "text/csv", this::getCSVWriter,
                 null);
     }
     
@@ -152,6 +179,10 @@ public class LogXESView extends AbstractGridView<LogXESView.EventRecord> {
     }
 
 
+    @Override
+    protected boolean isLazy() { return true; }
+
+
     private String getSpecLabel() {
         String specLabel = "";
          if (!_specIDList.isEmpty()) {
@@ -162,89 +193,285 @@ public class LogXESView extends AbstractGridView<LogXESView.EventRecord> {
     }
 
 
-    private List<LogXESView.EventRecord> toEventList(String xesLog) throws IOException {
-        ParticipantFieldTransposer.Field from = null;
-        ParticipantFieldTransposer.Field to = null;
-        XNode root = xesToXNode(xesLog);
-        List<LogXESView.EventRecord> eventList = new ArrayList<>();
-        String specVersion = extractSpecVersion(root);
-        List<XNode> traceNodes = root.getChildren("trace");
-        if (_versions == SingleSelectSpecificationIdList.Versions.All) {
-            _traceNodeMap.put(specVersion, traceNodes);
+    // the version logs can each be large, so they are fetched and parsed concurrently
+    // off the request thread, with the header showing progress as each completes
+    private void loadVersionsAsync() {
+        UI ui = UI.getCurrent();
+        if (ui == null) return;
+        CompletableFuture<ParallelFetch.Result<YSpecificationID, ParsedLog>> future =
+                new CompletableFuture<>();
+        Thread.startVirtualThread(() -> {
+            try {
+                future.complete(fetchVersionLogs(ui));
+            }
+            catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        UiUtil.accessWhenComplete(ui, future, this::mergeVersionEvents,
+                e -> Announcement.error(e.getMessage()));
+    }
+
+
+    private ParallelFetch.Result<YSpecificationID, ParsedLog> fetchVersionLogs(UI ui) {
+        List<YSpecificationID> specIDs = new ArrayList<>(_specIDList);
+        Collections.sort(specIDs);                                   // version order
+        AtomicInteger loaded = new AtomicInteger();
+        showProgress(ui, 0, specIDs.size());
+        ParallelFetch<YSpecificationID, ParsedLog> fetch = new ParallelFetch<>(
+                ApplicationProperties.getXesLogFetchLimit(),
+                Duration.ofSeconds(ApplicationProperties.getXesLogFetchTimeoutSeconds()));
+        return fetch.fetch(specIDs, specID -> {
+            ParsedLog parsedLog = toEventList(fetchLog(specID));
+            showProgress(ui, loaded.incrementAndGet(), specIDs.size());
+            return parsedLog;
+        });
+    }
+
+
+    // resource ids are transposed here rather than by the fetching threads, since
+    // the transposer is not thread-safe
+    private void mergeVersionEvents(ParallelFetch.Result<YSpecificationID, ParsedLog> result) {
+        List<EventRecord> events = new ArrayList<>();
+        _versionSpecIDs.clear();
+        for (Map.Entry<YSpecificationID, ParsedLog> entry : result.getValues().entrySet()) {
+            _versionSpecIDs.put(entry.getValue().specVersion(), entry.getKey());
+            List<EventRecord> versionEvents = entry.getValue().events();
+            transposeResourceIds(versionEvents);
+            events.addAll(versionEvents);
+        }
+        _versionEvents = events;
+        if (result.hasFailures()) {
+            Throwable t = result.getFailures().values().iterator().next();
+            Announcement.warn(String.format("Unable to load the log of %d of %d versions: %s",
+                    result.getFailures().size(), _specIDList.size(), t.getMessage()));
+        }
+        showItems(events);
+    }
+
+
+    private void showProgress(UI ui, int loaded, int total) {
+        try {
+            ui.access(() -> {
+                if (getHeader() != null) {
+                    getHeader().getElement().setText(String.format(
+                            "%s (loading versions: %d of %d)", getTitle(), loaded, total));
+                }
+            });
+        }
+        catch (UIDetachedException e) {
+            // the view has gone
+        }
+    }
+
+
+    private String fetchLog(YSpecificationID specID) throws IOException {
+        String xesLog = getResourceClient().getMergedXESLog(specID, true);
+        if (! successful(xesLog)) {
+            throw new IOException(xesLog);
+        }
+        return xesLog;
+    }
+
+
+    // reads the events straight from the log text - depth 1 is the log element, 2 its
+    // traces, 3 their events and 4 the events' attributes
+    private ParsedLog toEventList(String xesLog) throws IOException {
+        if (StringUtil.isNullOrEmpty(xesLog)) {
+            throw new IOException("Log is empty");
         }
-        for (XNode traceNode : traceNodes) {
-            String caseID = traceNode.getChild("string").getAttributeValue("value");
-            for (XNode eventNode : traceNode.getChildren("event")) {
-                LogXESView.EventRecord event = new EventRecord();
-                event.setSpecVersion(specVersion);
-                event.setCaseID(caseID);
-                for (XNode dateNode : eventNode.getChildren("date")) {
-                    String key = dateNode.getAttributeValue("key");
-                    if (key.equals("time:timestamp")) {
-                        event.setTimestamp(dateNode.getAttributeValue("value"));
-                        break;
+        List<LogXESView.EventRecord> eventList = new ArrayList<>();
+        String specVersion = "";
+        String caseID = null;
+        EventRecord event = null;
+        int depth = 0;
+        try {
+            XMLStreamReader reader = createInputFactory().createXMLStreamReader(
+                    new StringReader(xesLog));
+            while (reader.hasNext()) {
+                int type = reader.next();
+                if (type == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    String name = reader.getLocalName();
+                    String key = reader.getAttributeValue(null, "key");
+                    String value = reader.getAttributeValue(null, "value");
+                    if (depth == 2 && name.equals("string") && specVersion.isEmpty() &&
+                            "concept:name".equals(key)) {
+                        specVersion = value.substring(value.lastIndexOf(' '));
+                    }
+                    else if (depth == 2 && name.equals("trace")) {
+                        caseID = null;
+                    }
+                    else if (depth == 3 && name.equals("string") && caseID == null) {
+                        caseID = value;                        // the trace's first string
+                    }
+                    else if (depth == 3 && name.equals("event")) {
+                        event = new EventRecord();
+                        event.setSpecVersion(specVersion);
+                        event.setCaseID(caseID);
+                    }
+                    else if (depth == 4 && event != null) {
+                        addEventAttribute(event, name, key, value);
                     }
                 }
-                for (XNode itemNode : eventNode.getChildren("string")) {
-                    String key = itemNode.getAttributeValue("key");
-                    String value = itemNode.getAttributeValue("value");
-                    switch (key) {
-                        case "concept:name":
-                            event.setTaskID(value);
-                            break;
-                        case "lifecycle:transition":
-                            event.setTransition(value);
-                            break;
-                        case "concept:instance":
-                            event.setItemID(value);
-                            break;
-                        case "org:resource":
-                            if (! _transposerSetup) setupResourceFieldTransposer(value);
-                            event.setResourceID(transposeFormat(value));
-                            break;
+                else if (type == XMLStreamConstants.END_ELEMENT) {
+                    if (depth == 3 && event != null) {
+                        eventList.add(event);
+                        event = null;
                     }
+                    depth--;
                 }
-                eventList.add(event);
             }
+            reader.close();
+        }
+        catch (XMLStreamException e) {
+            throw new IOException("Error parsing xes log: " + e.getMessage());
         }
-        return eventList;
+        return new ParsedLog(specVersion, eventList);
     }
 
 
-    private XNode xesToXNode(String xesLog) throws IOException {
-        if (StringUtil.isNullOrEmpty(xesLog)) {
-            throw new IOException("Log is empty");
+    private void addEventAttribute(EventRecord event, String name, String key, String value) {
+        if (key == null) return;
+        if (name.equals("date")) {
+            if (key.equals("time:timestamp") && event.getTimestamp() == null) {
+                event.setTimestamp(value);
+            }
         }
-        XNode root = new XNodeParser().parse(xesLog);
-        if (root == null) {
-            throw new IOException("Error parsing xes log");
+        else if (name.equals("string")) {
+            switch (key) {
+                case "concept:name":
+                    event.setTaskID(value);
+                    break;
+                case "lifecycle:transition":
+                    event.setTransition(value);
+                    break;
+                case "concept:instance":
+                    event.setItemID(value);
+                    break;
+                case "org:resource":
+                    event.setResourceID(value);
+                    break;
+            }
         }
-        return root;
     }
 
 
-    private String extractSpecVersion(XNode root) {
-        for (XNode itemNode : root.getChildren("string")) {
-            String key = itemNode.getAttributeValue("key");
-            if (key.equals("concept:name")) {
-                String value = itemNode.getAttributeValue("value");
-                return value.substring(value.lastIndexOf(' '));
+    // merges the logs of each version into one as it writes it, taking the log header
+    // from the first log, adding a version attribute to each trace and transposing
+    // resource ids. Each version's log is fetched as it is reached, so only one is
+    // held at a time
+    private void mergeVersionLogs(Map<String, YSpecificationID> versionSpecIDs,
+                                  Map<String, String> transposeMap, OutputStream os)
+            throws XMLStreamException, IOException {
+        XMLInputFactory inputFactory = createInputFactory();
+        XMLEventFactory eventFactory = XMLEventFactory.newInstance();
+        XMLEventWriter writer = XMLOutputFactory.newInstance().createXMLEventWriter(os, "UTF-8");
+        writer.add(eventFactory.createStartDocument("UTF-8", "1.0"));
+        QName logName = null;
+        for (Map.Entry<String, YSpecificationID> entry : versionSpecIDs.entrySet()) {
+            boolean inHeader = logName == null;
+            int depth = 0;
+            boolean inTrace = false;
+            XMLEventReader reader = inputFactory.createXMLEventReader(
+                    new StringReader(fetchLog(entry.getValue())));
+            while (reader.hasNext()) {
+                XMLEvent event = reader.nextEvent();
+                if (event.isStartElement()) {
+                    depth++;
+                    StartElement element = event.asStartElement();
+                    if (depth == 1) {
+                        if (logName == null) logName = element.getName();
+                    }
+                    else if (depth == 2 && element.getName().getLocalPart().equals("trace")) {
+                        inHeader = false;
+                        inTrace = true;
+                        writer.add(event);
+                        writer.add(createVersionElement(eventFactory, entry.getKey()));
+                        writer.add(eventFactory.createEndElement("", "", "string"));
+                        continue;
+                    }
+                    else if (depth == 2 && inHeader && isSpecNameElement(element)) {
+                        event = truncateSpecificationName(eventFactory, element);
+                    }
+                    else if (depth == 4 && ! transposeMap.isEmpty()) {
+                        event = transposeResourceElement(eventFactory, element,
+                                transposeMap);
+                    }
+                }
+                else if (event.isEndElement() && depth-- < 2) {
+                    continue;                           // the log is closed after the merge
+                }
+                if (inTrace || (inHeader && depth > 0)) {
+                    writer.add(event);
+                }
+                if (inTrace && depth < 2) inTrace = false;        // the trace has ended
             }
+            reader.close();
+        }
+        if (logName != null) {
+            writer.add(eventFactory.createEndElement(logName, null));
         }
-        return "";
+        writer.add(eventFactory.createEndDocument());
+        writer.flush();
+        writer.close();                            // leaves the output stream open
     }
 
 
-    private void truncateSpecificationName(XNode root) {
-        for (XNode node : root.getChildren("string")) {
-            String key = node.getAttributeValue("key");
-            if (key.equals("concept:name")) {
-                String spec = node.getAttributeValue("value");
-                spec = spec.substring(0, spec.indexOf(" - "));
-                node.addAttribute("value", spec);
-                break;
-            }
+    private XMLEvent createVersionElement(XMLEventFactory eventFactory, String specVersion) {
+        List<Attribute> attributes = List.of(
+                eventFactory.createAttribute("key", "spec:version"),
+                eventFactory.createAttribute("value", specVersion));
+        return eventFactory.createStartElement("", "", "string",
+                attributes.iterator(), Collections.emptyIterator());
+    }
+
+
+    private XMLEvent transposeResourceElement(XMLEventFactory eventFactory,
+                          StartElement element, Map<String, String> transposeMap) {
+        Attribute key = element.getAttributeByName(new QName("key"));
+        Attribute value = element.getAttributeByName(new QName("value"));
+        if (key == null || value == null || ! key.getValue().equals("org:resource")) {
+            return element;
+        }
+        String transposed = transposeMap.get(value.getValue());
+        if (transposed == null) {
+            return element;
         }
+        List<Attribute> attributes = List.of(key,
+                eventFactory.createAttribute("value", transposed));
+        return eventFactory.createStartElement(element.getName(),
+                attributes.iterator(), element.getNamespaces());
+    }
+
+
+    private boolean isSpecNameElement(StartElement element) {
+        Attribute key = element.getAttributeByName(new QName("key"));
+        return element.getName().getLocalPart().equals("string") && key != null &&
+                key.getValue().equals("concept:name");
+    }
+
+
+    private XMLEvent truncateSpecificationName(XMLEventFactory eventFactory,
+                                               StartElement element) {
+        String spec = element.getAttributeByName(new QName("value")).getValue();
+        int pos = spec.indexOf(" - ");
+        if (pos > -1) spec = spec.substring(0, pos);
+        List<Attribute> attributes = List.of(
+                eventFactory.createAttribute("key", "concept:name"),
+                eventFactory.createAttribute("value", spec));
+        return eventFactory.createStartElement(element.getName(),
+                attributes.iterator(), element.getNamespaces());
+    }
+
+
+    // the StAX factories aren't thread-safe, and versions are parsed concurrently, so
+    // each parse or merge creates its own
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
     }
 
 
@@ -268,6 +495,17 @@ public class LogXESView extends AbstractGridView<LogXESView.EventRecord> {
 
     
 
+    private void transposeResourceIds(List<EventRecord> events) {
+        for (EventRecord event : events) {
+            String resourceID = event.getResourceID();
+            if (resourceID != null) {
+                if (! _transposerSetup) setupResourceFieldTransposer(resourceID);
+                event.setResourceID(transposeFormat(resourceID));
+            }
+        }
+    }
+
+
     private String transposeFormat(String ogValue) {
         if (_fieldTransposer != null) {
             return _fieldTransposer.transpose(ogValue);
@@ -276,16 +514,15 @@ public class LogXESView extends AbstractGridView<LogXESView.EventRecord> {
     }
 
 
-    private String transposeXesResourceIds(String log) {
-        if (_fieldTransposer != null) {
-            for (Map.Entry<String, String> entry : _fieldTransposer.getTransposeMap().entrySet()) {
-                log = log.replaceAll(entry.getKey(), entry.getValue());
-            }
-        }
-        return log;
+    private Map<String, String> getTransposeMap() {
+        return _fieldTransposer != null ? _fieldTransposer.getTransposeMap() :
+                Collections.emptyMap();
     }
 
 
+    private record ParsedLog(String specVersion, List<EventRecord> events) { }
+
+
     static class EventRecord {
         String specVersion;
         String caseID;
@@ -18,6 +18,8 @@ import com.vaadin.flow.component.tabs.Tab;
 import com.vaadin.flow.component.tabs.Tabs;
 import com.vaadin.flow.router.HasDynamicTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.shared.Registration;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
@@ -26,7 +28,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.yawlfoundation.yawl.elements.YAWLServiceReference;
 import org.yawlfoundation.yawl.engine.interfce.ServletUtils;
 import org.yawlfoundation.yawl.engine.interfce.WorkItemRecord;
-import org.yawlfoundation.yawl.resourcing.WorkQueue;
 import org.yawlfoundation.yawl.resourcing.resource.Participant;
 import org.yawlfoundation.yawl.resourcing.resource.UserPrivileges;
 import org.yawlfoundation.yawl.resourcing.rsInterface.ResourceGatewayException;
@@ -34,24 +35,26 @@ import org.yawlfoundation.yawl.ui.dynform.DynForm;
 import org.yawlfoundation.yawl.ui.menu.ActionIcon;
 import org.yawlfoundation.yawl.ui.menu.DrawerMenu;
 import org.yawlfoundation.yawl.ui.service.Clients;
+import org.yawlfoundation.yawl.ui.service.CustomFormHandleRegistry;
 import org.yawlfoundation.yawl.ui.service.ResourceClient;
 import org.yawlfoundation.yawl.ui.util.BuildInformation;
+import org.yawlfoundation.yawl.ui.util.InstalledServices;
+import org.yawlfoundation.yawl.util.StringUtil;
 
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.security.NoSuchAlgorithmException;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
 
 @Route("")
 @JsModule("@vaadin/vaadin-lumo-styles/presets/compact.js")
 public class MainView extends AppLayout implements HasDynamicTitle,
         ComponentEventListener<Tabs.SelectedChangeEvent> {
 
-    private static final Map<Participant, String> _customFormHandleMap = new HashMap<>();
+    private static final CustomFormHandleRegistry _customFormHandles =
+            CustomFormHandleRegistry.getInstance();
 
     private Participant _user;
+    private Registration _workletServiceListener;
     private boolean _isDrawerOpen = false;
     private final DrawerToggle _menuIcon = new DrawerToggle();
     
@@ -143,7 +146,7 @@ public class MainView extends AppLayout implements HasDynamicTitle,
                 _user = resClient.getParticipant(username);
                 if (_user != null) {              // authenticated but null == admin
                     _user.setUserPrivileges(resClient.getUserPrivileges(_user.getID()));
-                    _customFormHandleMap.put(_user,
+                    _customFormHandles.register(VaadinSession.getCurrent(), _user,
                             resClient.getUserCustomFormHandle(username, password));
                 }
                 createTitleBar(username);
@@ -169,7 +172,7 @@ public class MainView extends AppLayout implements HasDynamicTitle,
 
 
     private String getCustomformHandle(Participant user) {
-        return _customFormHandleMap.get(user);
+        return user != null ? _customFormHandles.getHandle(VaadinSession.getCurrent()) : null;
     }
 
     // the vaadin way to set the error msg to other than the default
@@ -228,10 +231,9 @@ public class MainView extends AppLayout implements HasDynamicTitle,
 
     // update menu if worklet service is added or removed
     private void addWorkletServiceChangeListener(DrawerMenu menu) {
-        Clients.getResourceClient().addEventListener(e -> {
+        _workletServiceListener = Clients.getResourceClient().addEventListener(this, e -> {
             if (e.getObject() instanceof YAWLServiceReference &&
-                    ((YAWLServiceReference) e.getObject()).getURI()
-                            .contains("workletService")) {
+                    InstalledServices.isWorkletService((YAWLServiceReference) e.getObject())) {
 
                 switch (e.getAction()) {
                     case ServiceAdd : menu.insertWorkletItem(); break;
@@ -272,11 +274,14 @@ public class MainView extends AppLayout implements HasDynamicTitle,
 
     private void exit() {
         try {
-            _customFormHandleMap.remove(_user);
+            _customFormHandles.remove(VaadinSession.getCurrent());
+            if (_workletServiceListener != null) {
+                _workletServiceListener.remove();
+                _workletServiceListener = null;
+            }
             _user = null;
-            if (_customFormHandleMap.isEmpty()) {             // if no-one's logged on
-                Clients.getResourceClient().disconnect();
-                Clients.getEngineClient().disconnect();
+            if (_customFormHandles.isEmpty()) {               // if no-one's logged on
+                Clients.disconnect();
             }
         }
         catch (IOException ioe) {
@@ -288,7 +293,12 @@ public class MainView extends AppLayout implements HasDynamicTitle,
 
     /**********************************************************************/
 
-    // This inner class serves custom form endpoints
+    // This inner class serves custom form endpoints. Each request checks its handle
+    // and that its work item was started by the handle's user, both cached for a short
+    // time (see CustomFormHandleRegistry). The 'item' endpoint is served from the item
+    // fetched for the started check; the others make their call only, once the item
+    // has been checked. So a request makes one service call, plus one whenever its
+    // handle or item is due to be rechecked
     @WebServlet("/customform/*")
     public static class CustomFormServlet extends HttpServlet {
 
@@ -303,12 +313,14 @@ public class MainView extends AppLayout implements HasDynamicTitle,
             String result = null;
             ResourceClient resClient = Clients.getResourceClient();
             try {
-                WorkItemRecord wir = getStartedItem(wirID, handle, resp); // check valid item
-                if (wir == null) return;                          // error resp sent
+                if (method.equals("item")) {
+                    WorkItemRecord wir = getStartedItem(wirID, handle, resp);
+                    if (wir == null) return;                      // error resp sent
+                    send(resp, wir.toXML());
+                    return;
+                }
+                if (! isStartedItem(wirID, handle, resp)) return; // error resp sent
                 switch (method) {
-                    case "item":
-                        result = wir.toXML();
-                        break;
                     case "parameters":
                         result = resClient.getWorkItemParameters(wirID, handle); break;
                     case "outputOnlyParameters":
@@ -336,15 +348,15 @@ public class MainView extends AppLayout implements HasDynamicTitle,
             String result = null;
             ResourceClient resClient = Clients.getResourceClient();
             try {
-                WorkItemRecord wir = getStartedItem(wirID, handle, resp); // check valid item
-                if (wir == null) return;                          // error resp sent
+                if (! isStartedItem(wirID, handle, resp)) return; // error resp sent
                 switch (method) {
                     case "save":
                         String data = req.getParameter("data");
                         result = resClient.updateWorkItemData(wirID, data, handle);
                         break;
-                    case "complete":
-                         resClient.completeItem(wir, getParticipantID(handle));
+                    case "complete":                 // completes with the item's saved data
+                         resClient.completeItem(wirID, getParticipantID(handle));
+                         _customFormHandles.removeStartedItem(handle, wirID);
                          break;
                     default:
                         resp.sendError(HttpServletResponse.SC_NOT_FOUND, "Unrecognized resource");
@@ -370,7 +382,7 @@ public class MainView extends AppLayout implements HasDynamicTitle,
             }
 
             String handle = parts[3];
-            if (! Clients.getResourceClient().isValidUserSessionHandle(handle)) {
+            if (! _customFormHandles.isValid(handle)) {
                 resp.sendError(HttpServletResponse.SC_NOT_FOUND, "Invalid session handle");
                 return null;
             }
@@ -387,16 +399,22 @@ public class MainView extends AppLayout implements HasDynamicTitle,
         }
 
 
+        // a recent started check of the item is reused, rather than refetching it
+        private boolean isStartedItem(String wirID, String handle, HttpServletResponse resp)
+                throws IOException {
+            return _customFormHandles.isStartedItem(handle, wirID) ||
+                    getStartedItem(wirID, handle, resp) != null;
+        }
+
+
         private WorkItemRecord getStartedItem(String wirID, String handle, HttpServletResponse resp)
-                throws ResourceGatewayException, IOException {
-            String pid = getParticipantID(handle);
-            if (pid != null) {
-                Set<WorkItemRecord> startedItems = Clients.getResourceClient()
-                        .getQueuedItems(pid, WorkQueue.STARTED);
-                for (WorkItemRecord item : startedItems) {
-                    if (item.getID().equals(wirID)) {
-                        return item;
-                    }
+                throws IOException {
+            Participant user = _customFormHandles.getParticipant(handle);
+            if (user != null) {
+                WorkItemRecord item = getItem(wirID, handle);
+                if (isStartedBy(item, user)) {
+                    _customFormHandles.setStartedItem(handle, wirID);
+                    return item;
                 }
             }
             resp.sendError(HttpServletResponse.SC_NOT_FOUND, "Unrecognized resource");
@@ -404,14 +422,31 @@ public class MainView extends AppLayout implements HasDynamicTitle,
         }
 
 
-        private String getParticipantID(String userHandle) {
-            for (Participant user : _customFormHandleMap.keySet()) {
-                String handle = _customFormHandleMap.get(user);
-                if (handle.equals(userHandle)) {
-                    return user.getID();
-                }
+        // the item must have been started by the user, as recorded in the item
+        static boolean isStartedBy(WorkItemRecord item, Participant user) {
+            if (item == null || user == null ||
+                    ! item.hasResourceStatus(WorkItemRecord.statusResourceStarted)) {
+                return false;
             }
-            return null;
+            String startedBy = item.getStartedBy();
+            return ! StringUtil.isNullOrEmpty(startedBy) &&
+                    (startedBy.equals(user.getUserID()) || startedBy.equals(user.getID()));
+        }
+
+
+        private WorkItemRecord getItem(String wirID, String handle) throws IOException {
+            try {
+                return Clients.getResourceClient().getWorkItemRecord(wirID, handle);
+            }
+            catch (ResourceGatewayException e) {
+                return null;                                    // unknown item
+            }
+        }
+
+
+        private String getParticipantID(String userHandle) {
+            Participant user = _customFormHandles.getParticipant(userHandle);
+            return user != null ? user.getID() : null;
         }
 
     }
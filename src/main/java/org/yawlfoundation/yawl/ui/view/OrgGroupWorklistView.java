@@ -2,12 +2,14 @@ package org.yawlfoundation.yawl.ui.view;
 
 import org.yawlfoundation.yawl.resourcing.resource.Participant;
 import org.yawlfoundation.yawl.resourcing.resource.Position;
-import org.yawlfoundation.yawl.resourcing.rsInterface.ResourceGatewayException;
 import org.yawlfoundation.yawl.ui.announce.Announcement;
+import org.yawlfoundation.yawl.ui.util.ParallelFetch;
 import org.yawlfoundation.yawl.util.StringUtil;
 
-import java.io.IOException;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -26,24 +28,39 @@ public class OrgGroupWorklistView extends AbstractTeamView {
 
     @Override
     protected Set<Participant> getTeamMembers(Participant p) {
-        Set<Participant> teamMembers = new HashSet<>();
-
-        try {
-            for (Position pos : p.getPositions()) {
-                String oid = pos.get_orgGroupID();
-                if (oid != null) {
-                    teamMembers.addAll(getResourceClient().getOrgGroupMembers(oid));
-                }
+        Set<String> orgGroupIDs = new LinkedHashSet<>();
+        for (Position pos : p.getPositions()) {
+            String oid = pos.get_orgGroupID();
+            if (oid != null) {
+                orgGroupIDs.add(oid);
             }
         }
-        catch (IOException | ResourceGatewayException e) {
-            if (e.getMessage().contains("no participants reporting to")) {
-                Announcement.highlight("You don't have anyone reporting to you");
+
+        // each org group's members are fetched concurrently
+        ParallelFetch<String, List<Participant>> memberFetch = new ParallelFetch<>();
+        ParallelFetch.Result<String, List<Participant>> fetched = memberFetch.fetch(
+                orgGroupIDs, oid -> getResourceClient().getOrgGroupMembers(oid));
+
+        Set<Participant> teamMembers = new HashSet<>();
+        fetched.getValues().values().stream().filter(Objects::nonNull)
+                .forEach(teamMembers::addAll);
+
+        // members from the groups that were fetched are still shown
+        boolean noReports = false;
+        Set<String> warnings = new LinkedHashSet<>();
+        for (Throwable failure : fetched.getFailures().values()) {
+            String msg = String.valueOf(failure.getMessage());
+            if (msg.contains("no participants reporting to")) {
+                noReports = true;
             }
             else {
-                Announcement.warn(StringUtil.unwrap(e.getMessage()));
+                warnings.add(StringUtil.unwrap(msg));
             }
         }
+        if (noReports) {
+            Announcement.highlight("You don't have anyone reporting to you");
+        }
+        warnings.forEach(Announcement::warn);
         return teamMembers;
     }
 
@@ -57,6 +57,10 @@ public class UserWorklistView extends AbstractWorklistView {
     }
 
 
+    @Override
+    protected String getPolledQueueOwner() { return getParticipantID(); }
+
+
     @Override
     protected QueueSet refreshQueueSet(Participant p) {
         try {
@@ -78,7 +82,7 @@ public class UserWorklistView extends AbstractWorklistView {
     @Override
     void addItemActions(WorkItemRecord item, ActionRibbon ribbon) {
         TaskPrivileges taskPrivileges = getTaskPrivileges(item);
-        boolean hasWorklets = new InstalledServices().hasWorkletService();
+        boolean hasWorklets = InstalledServices.getInstance().hasWorkletService();
         switch(item.getResourceStatus()) {
             case "Offered" : createOfferedRibbon(item, ribbon, hasWorklets); break;
             case "Allocated" : createAllocatedRibbon(item, ribbon, taskPrivileges, hasWorklets); break;
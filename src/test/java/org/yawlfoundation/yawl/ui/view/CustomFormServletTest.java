@@ -0,0 +1,84 @@
+package org.yawlfoundation.yawl.ui.view;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.yawlfoundation.yawl.engine.interfce.WorkItemRecord;
+import org.yawlfoundation.yawl.resourcing.resource.Participant;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the custom form servlet's check that a work item was started by the
+ * requesting user.
+ *
+ * @author Michael Adams
+ * @date 18/10/2026
+ */
+public class CustomFormServletTest {
+
+    private Participant _user;
+
+
+    @Before
+    public void setup() {
+        _user = new Participant("Smith", "Jan", "jsmith");
+        _user.setID("PA-1234");
+    }
+
+
+    @Test
+    public void startedByUserID() {
+        WorkItemRecord item = createItem(WorkItemRecord.statusResourceStarted, "jsmith");
+        assertTrue(MainView.CustomFormServlet.isStartedBy(item, _user));
+    }
+
+
+    @Test
+    public void startedByParticipantID() {
+        WorkItemRecord item = createItem(WorkItemRecord.statusResourceStarted, "PA-1234");
+        assertTrue(MainView.CustomFormServlet.isStartedBy(item, _user));
+    }
+
+
+    @Test
+    public void startedByAnotherUser() {
+        WorkItemRecord item = createItem(WorkItemRecord.statusResourceStarted, "adoe");
+        assertFalse(MainView.CustomFormServlet.isStartedBy(item, _user));
+    }
+
+
+    @Test
+    public void notStarted() {
+        WorkItemRecord item = createItem(WorkItemRecord.statusResourceAllocated, "jsmith");
+        assertFalse(MainView.CustomFormServlet.isStartedBy(item, _user));
+    }
+
+
+    @Test
+    public void unknownItemOrUser() {
+        WorkItemRecord item = createItem(WorkItemRecord.statusResourceStarted, "jsmith");
+        assertFalse(MainView.CustomFormServlet.isStartedBy(null, _user));
+        assertFalse(MainView.CustomFormServlet.isStartedBy(item, null));
+    }
+
+
+    @Test
+    public void unrecordedStarterIsRejected() {
+        assertFalse(MainView.CustomFormServlet.isStartedBy(
+                createItem(WorkItemRecord.statusResourceStarted, null), _user));
+        assertFalse(MainView.CustomFormServlet.isStartedBy(
+                createItem(WorkItemRecord.statusResourceStarted, ""), _user));
+    }
+
+
+    private WorkItemRecord createItem(String resourceStatus, String startedBy) {
+        WorkItemRecord item = new WorkItemRecord();
+        item.setCaseID("42");
+        item.setTaskID("Approve");
+        item.setResourceStatus(resourceStatus);
+        item.setStartedBy(startedBy);
+        return item;
+    }
+
+}